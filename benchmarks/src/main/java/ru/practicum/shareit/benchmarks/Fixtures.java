@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmarks;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Граф сущностей без базы данных для бенчмарков мапперов и сериализации
+@UtilityClass
+class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@mail.com");
+        return user;
+    }
+
+    Item item(long id, User owner, ItemRequest request) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + id);
+        item.setDescription("Аккумуляторная дрель с набором сверл " + id);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+
+    ItemRequest request(long id, User requestor, int items) {
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setDescription("Нужна дрель на выходные");
+        request.setRequestor(requestor);
+        request.setCreated(NOW.minusDays(3));
+        List<Item> answers = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            answers.add(item(100 + i, user(200 + i), request));
+        }
+        request.setItems(answers);
+        return request;
+    }
+
+    Booking booking(long id, Item item, User booker, LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Booking.Status.APPROVED);
+        return booking;
+    }
+
+    Comment comment(long id, Item item, User author) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("Отличная дрель, всё просверлила " + id);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(NOW.minusDays(1));
+        return comment;
+    }
+}
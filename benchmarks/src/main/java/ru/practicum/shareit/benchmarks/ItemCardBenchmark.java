@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.service.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Карточка вещи целиком: вещь, последнее и следующее бронирование, комментарии.
+// Сервер поднимается в профиле dev на H2 в памяти, без веб-слоя и фоновых задач.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemCardBenchmark {
+    private static final int ITEMS = 100;
+
+    @Param({"20", "200"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private List<Long> itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItServer.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("dev");
+        application.setDefaultProperties(Map.of(
+                "shareit.booking.expiry.enabled", "false",
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        context = application.run();
+        itemService = context.getBean(ItemService.class);
+
+        UserService userService = context.getBean(UserService.class);
+        Long ownerId = userService.createUser(userDto("owner")).getId();
+        User booker = context.getBean(UserRepository.class)
+                .findById(userService.createUser(userDto("booker")).getId()).orElseThrow();
+
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("Item " + i);
+            itemDto.setDescription("Description " + i);
+            itemDto.setAvailable(true);
+            itemDtos.add(itemDto);
+        }
+        itemIds = itemService.addItems(ownerId, itemDtos).stream()
+                .map(ItemDto::getId)
+                .toList();
+
+        // Половина истории каждой вещи в прошлом, половина впереди
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (Item item : context.getBean(ItemRepository.class).findAllById(itemIds)) {
+            for (int j = 0; j < bookingsPerItem; j++) {
+                Booking booking = new Booking();
+                LocalDateTime start = now.plusDays(j - bookingsPerItem / 2);
+                booking.setStart(start);
+                booking.setEnd(start.plusHours(1));
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStatus(Booking.Status.APPROVED);
+                bookings.add(booking);
+            }
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto getItemById() {
+        return itemService.getItemById(itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size())));
+    }
+
+    private static UserDto userDto(String name) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(name + "@mail.com");
+        return userDto;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.service.ItemGeoIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск в радиусе в зависимости от числа вещей с координатами: сетка против полного прохода
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemGeoSearchBenchmark {
+    // Вещи разбросаны по прямоугольнику размером с европейскую часть России
+    private static final double MIN_LAT = 43;
+    private static final double MAX_LAT = 68;
+    private static final double MIN_LON = 28;
+    private static final double MAX_LON = 60;
+    private static final double RADIUS_KM = 10;
+    private static final int CENTERS = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    private double[][] points;
+    private double[][] centers;
+    private ItemGeoIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        points = new double[catalogSize][];
+        index = new ItemGeoIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            points[i] = randomPoint(random);
+            index.index((long) i, points[i][0], points[i][1], true);
+        }
+        centers = new double[CENTERS][];
+        for (int i = 0; i < CENTERS; i++) {
+            centers[i] = randomPoint(random);
+        }
+    }
+
+    @Benchmark
+    public List<ItemGeoIndex.Neighbor> grid() {
+        double[] center = center();
+        return index.within(center[0], center[1], RADIUS_KM);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        double[] center = center();
+        int found = 0;
+        for (double[] point : points) {
+            if (ItemGeoIndex.distanceKm(center[0], center[1], point[0], point[1]) <= RADIUS_KM) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private double[] center() {
+        return centers[ThreadLocalRandom.current().nextInt(CENTERS)];
+    }
+
+    private static double[] randomPoint(Random random) {
+        return new double[]{MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT),
+                MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON)};
+    }
+}
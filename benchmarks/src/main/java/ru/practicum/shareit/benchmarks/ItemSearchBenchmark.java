@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск подстроки в зависимости от размера каталога: триграммный индекс против полного прохода (аналог LIKE '%text%')
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] SYLLABLES = {"ка", "ро", "ми", "ту", "ле", "на", "по", "ши", "ва", "де",
+            "зо", "лу", "бе", "ги", "мо", "ря", "се", "ха", "цу", "жа"};
+    private static final int QUERIES = 10;
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    private List<String[]> catalog;
+    private ItemSearchIndex index;
+    private List<String> queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(catalogSize);
+        index = new ItemSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            String name = word(random) + " " + word(random);
+            String description = word(random) + " " + word(random) + " " + word(random) + " " + i;
+            catalog.add(new String[]{name, description});
+            index.index((long) i + 1, name, description, true);
+        }
+        queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(word(random));
+        }
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return index.search(query());
+    }
+
+    @Benchmark
+    public int fullScan() {
+        String text = query().toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (String[] item : catalog) {
+            if (item[0].toLowerCase(Locale.ROOT).contains(text) || item[1].toLowerCase(Locale.ROOT).contains(text)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private String query() {
+        return queries.get(ThreadLocalRandom.current().nextInt(QUERIES));
+    }
+
+    // Слово из четырех слогов: 20^4 вариантов, как у настоящего каталога с разнообразными названиями
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.comments.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private ObjectMapper objectMapper;
+    private BookingDto booking;
+    private ItemWithBookingsDto itemWithBookings;
+    private String bookingJson;
+    private String itemWithBookingsJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Та же настройка Jackson, что и у Spring MVC на сервере (JavaTimeModule, даты строками)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User booker = Fixtures.user(1);
+        Item item = Fixtures.item(1, Fixtures.user(2), Fixtures.request(1, Fixtures.user(3), 3));
+        booking = BookingMapper.toDto(Fixtures.booking(1, item, booker, Fixtures.NOW.minusDays(2)));
+        itemWithBookings = ItemMapper.toItemWithBookingsDto(item, booking,
+                BookingMapper.toDto(Fixtures.booking(2, item, booker, Fixtures.NOW.plusDays(2))),
+                List.of(CommentMapper.toDto(Fixtures.comment(1, item, booker)),
+                        CommentMapper.toDto(Fixtures.comment(2, item, booker))));
+        bookingJson = objectMapper.writeValueAsString(booking);
+        itemWithBookingsJson = objectMapper.writeValueAsString(itemWithBookings);
+    }
+
+    @Benchmark
+    public String serializeBooking() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public String serializeItemWithBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(itemWithBookings);
+    }
+
+    @Benchmark
+    public BookingDto deserializeBooking() throws JsonProcessingException {
+        return objectMapper.readValue(bookingJson, BookingDto.class);
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto deserializeItemWithBookings() throws JsonProcessingException {
+        return objectMapper.readValue(itemWithBookingsJson, ItemWithBookingsDto.class);
+    }
+}
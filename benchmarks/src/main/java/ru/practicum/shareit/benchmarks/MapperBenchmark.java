@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.comments.mapper.CommentMapper;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private User user;
+    private Item item;
+    private ItemRequest request;
+    private Booking booking;
+    private Comment comment;
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        request = Fixtures.request(1, Fixtures.user(2), 5);
+        item = Fixtures.item(1, Fixtures.user(3), request);
+        booking = Fixtures.booking(1, item, user, Fixtures.NOW.minusDays(2));
+        comment = Fixtures.comment(1, item, user);
+        lastBooking = BookingMapper.toDto(booking);
+        nextBooking = BookingMapper.toDto(Fixtures.booking(2, item, user, Fixtures.NOW.plusDays(2)));
+        comments = List.of(CommentMapper.toDto(comment), CommentMapper.toDto(Fixtures.comment(2, item, user)));
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto itemToItemWithBookingsDto() {
+        return ItemMapper.toItemWithBookingsDto(item, lastBooking, nextBooking, comments);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public ItemRequestDto requestToDto() {
+        return ItemRequestMapper.toDto(request);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toDto(comment);
+    }
+}
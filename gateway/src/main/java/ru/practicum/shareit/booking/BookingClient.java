@@ -1,40 +1,56 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.client.ItemClient;
 
+import java.io.IOException;
 import java.util.Map;
 
+@Slf4j
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ItemClient itemClient, ObjectMapper objectMapper) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
                         .build()
         );
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, int from, int size, String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
+        parameters.put("state", state.name());
+        return get("?state={state}&" + PAGE_QUERY, userId, parameters);
     }
 
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+        ResponseEntity<Object> response = post("", userId, requestDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            itemClient.evictItemCard(requestDto.getItemId());
+        }
+        return response;
     }
 
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
@@ -43,11 +59,41 @@ public class BookingClient extends BaseClient {
 
     public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            evictBookedItemCard(response.getBody());
+        }
+        return response;
+    }
+
+    // Вещь известна только из ответа сервера; если ее не найти, надежнее сбросить все карточки
+    private void evictBookedItemCard(Object body) {
+        JsonNode itemId = null;
+        if (body instanceof byte[] bytes) {
+            try {
+                itemId = objectMapper.readTree(bytes).path("item").path("id");
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать вещь из ответа на подтверждение бронирования", e);
+            }
+        }
+        if (itemId != null && itemId.canConvertToLong()) {
+            itemClient.evictItemCard(itemId.asLong());
+        } else {
+            itemClient.evictItemCards();
+        }
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookings(long userId) {
+        return stream("/export", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(long userId) {
+        return stream("/owner/export", userId);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner?state={state}", userId, parameters);
+    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, int from, int size, String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
+        parameters.put("state", state.name());
+        return get("/owner?state={state}&" + PAGE_QUERY, userId, parameters);
     }
 }
\ No newline at end of file
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -23,11 +26,14 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<Object> getBookings(
             @RequestHeader(USER_ID_HEADER) long userId,
-            @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get bookings with state {}, userId={}", stateParam, userId);
-        return bookingClient.getBookings(userId, state);
+        log.info("Get bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
@@ -55,10 +61,26 @@ public class BookingController {
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(
             @RequestHeader(USER_ID_HEADER) long userId,
-            @RequestParam(name = "state", defaultValue = "all") String stateParam) { // Убраны from и size
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owner bookings with state {}, userId={}", stateParam, userId);
-        return bookingClient.getOwnerBookings(userId, state);
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
+    }
+
+    // NDJSON-выгрузка всей истории без пагинации: тело сервера идет клиенту потоком
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Export bookings, userId={}", userId);
+        return bookingClient.exportBookings(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Export owner bookings, userId={}", userId);
+        return bookingClient.exportOwnerBookings(userId);
     }
 }
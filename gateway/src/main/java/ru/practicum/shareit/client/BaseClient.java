@@ -1,18 +1,48 @@
 package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class BaseClient {
+    protected static final String PAGE_QUERY = "from={from}&size={size}&cursor={cursor}";
+
+    // Заголовки соединения gateway-server; длину тела контейнер выставит сам
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length");
+
+    private static final ResponseErrorHandler PASS_THROUGH_ERRORS = new DefaultResponseErrorHandler() {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    };
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
+        // Ошибки сервера отдаем клиенту как есть, без исключений и повторного копирования тела
+        this.rest.setErrorHandler(PASS_THROUGH_ERRORS);
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,6 +57,15 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    // Условный GET: сервер сам сверит ETag и при совпадении вернет 304 без тела
+    protected ResponseEntity<Object> getIfNoneMatch(String path, @Nullable Long userId, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return prepareGatewayResponse(rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class));
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -75,18 +114,83 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    // Длинный ответ сервера (выгрузка) копируется клиенту по мере чтения, без буферизации в памяти gateway.
+    // Запрос выполняется сразу, чтобы статус и заголовки сервера (в том числе ошибки) ушли клиенту как есть.
+    // Короткий ответ с ошибкой читается целиком и соединение отпускается сразу; успешное тело держит
+    // соединение до конца записи, а если контейнер тело так и не вызовет - до завершения async-обработки
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) {
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("Сервер недоступен: " + e.getMessage(), e);
+        }
+        try {
+            HttpStatusCode status = response.getStatusCode();
+            HttpHeaders headers = withoutHopByHop(response.getHeaders());
+            if (!status.is2xxSuccessful()) {
+                byte[] error;
+                try (response) {
+                    error = response.getBody().readAllBytes();
+                }
+                return ResponseEntity.status(status)
+                        .headers(headers)
+                        .body(out -> out.write(error));
+            }
+            closeOnAsyncCompletion(response);
+            StreamingResponseBody body = out -> {
+                try (response) {
+                    response.getBody().transferTo(out);
+                }
+            };
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .body(body);
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("Сервер недоступен: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    // Таймаут async-запроса или отключение клиента до начала записи: тело не вызывается, а соединение
+    // иначе так и осталось бы занятым в пуле. Повторное закрытие после записи ничего не делает
+    private static void closeOnAsyncCompletion(ClientHttpResponse response) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                    .registerCallableInterceptor(response, new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                            response.close();
+                        }
+                    });
+        }
+    }
+
+    // Пустой курсор сервер трактует как его отсутствие
+    protected static Map<String, Object> pageParameters(int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        parameters.put("cursor", cursor == null ? "" : cursor);
+        return parameters;
+    }
+
+    // Тело ответа сервера читается как byte[] и уходит клиенту без разбора в Jackson-дерево и обратно;
+    // статус и заголовки (Content-Type, X-Next-Cursor и т.д.) сохраняются
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        ResponseEntity<byte[]> shareitServerResponse;
+        if (parameters != null) {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+        } else {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -101,12 +205,9 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(withoutHopByHop(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -114,4 +215,14 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static HttpHeaders withoutHopByHop(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 }
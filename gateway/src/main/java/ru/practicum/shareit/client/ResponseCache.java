@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Кэш успешных GET-ответов сервера, ограниченный по размеру и времени жизни.
+// Каждому ответу назначается ETag: совпавший If-None-Match получает 304 без обращения к серверу
+public class ResponseCache {
+    private final Cache<String, CachedResponse> cache;
+    // Меняется при каждом вытеснении: ответ, загруженный до изменения данных, в кэш уже не попадет
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties.Region region) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(region.getMaximumSize())
+                .expireAfterWrite(region.getTtl())
+                .build();
+    }
+
+    public ResponseEntity<Object> get(String key, @Nullable String ifNoneMatch,
+                                      Supplier<ResponseEntity<Object>> loader) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null) {
+            long loadGeneration = generation.get();
+            ResponseEntity<Object> response = loader.get();
+            if (response.getStatusCode() != HttpStatus.OK || !(response.getBody() instanceof byte[] body)) {
+                return response;
+            }
+            cached = CachedResponse.of(response.getHeaders(), body);
+            if (generation.get() == loadGeneration) {
+                cache.put(key, cached);
+            }
+        }
+        return cached.toResponse(ifNoneMatch);
+    }
+
+    public void evict(String key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private record CachedResponse(HttpHeaders headers, byte[] body, String etag) {
+        // ETag сервера, если он его прислал, иначе - хэш тела, как у ShallowEtagHeaderFilter
+        static CachedResponse of(HttpHeaders responseHeaders, byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(responseHeaders);
+            String etag = headers.getETag();
+            if (etag == null) {
+                etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+                headers.setETag(etag);
+            }
+            return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body, etag);
+        }
+
+        ResponseEntity<Object> toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+
+        // If-None-Match может содержать список тегов, слабые теги W/"..." сравниваются без префикса
+        private boolean matches(@Nullable String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String strongEtag = strip(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || strip(tag).equals(strongEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String strip(String tag) {
+            return tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Размер и время жизни кэшей ответов сервера в gateway
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    // Карточка вещи содержит последнее/следующее бронирование, поэтому живет недолго
+    private Region itemCards = new Region(10_000, Duration.ofSeconds(30));
+    private Region search = new Region(1_000, Duration.ofSeconds(60));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maximumSize;
+        private Duration ttl;
+    }
+}
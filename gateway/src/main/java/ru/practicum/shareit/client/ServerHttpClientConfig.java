@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.common.KeyValue;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+import java.util.regex.Pattern;
+
+// Один пул keep-alive соединений на все клиенты gateway вместо отдельного маленького пула у каждого RestTemplate
+@Configuration
+@EnableConfigurationProperties({ServerHttpProperties.class, ResponseCacheProperties.class})
+public class ServerHttpClientConfig {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(ServerHttpProperties properties) {
+        TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setValidateAfterInactivity(keepAlive)
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        // Стратегия берет срок из заголовка Keep-Alive сервера, а без него - отсюда
+                        .setConnectionKeepAlive(keepAlive)
+                        .build())
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .build();
+    }
+
+    // Builder получают все клиенты, унаследованные от BaseClient
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                   CloseableHttpClient serverHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> requestFactory);
+    }
+
+    // Тег uri у http.client.requests - полный путь на сервере с {id} вместо идентификаторов.
+    // По умолчанию тегом был путь без префикса клиента и с конкретными id: серии упирались в лимит uri-тегов
+    @Bean
+    public ClientRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultClientRequestObservationConvention() {
+            @Override
+            protected KeyValue uri(ClientRequestObservationContext context) {
+                if (context.getCarrier() == null) {
+                    return super.uri(context);
+                }
+                String path = context.getCarrier().getURI().getPath();
+                return KeyValue.of("uri", ID_SEGMENT.matcher(path).replaceAll("/{id}"));
+            }
+        };
+    }
+}
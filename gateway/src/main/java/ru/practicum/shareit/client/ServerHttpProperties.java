@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Настройки общего пула HTTP-соединений gateway -> server
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpProperties {
+    // Все клиенты ходят на один хост, поэтому лимит на маршрут по умолчанию равен общему
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    // Сколько ждать свободного соединения из пула, прежде чем вернуть ошибку
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    // Сколько держать простаивающее keep-alive соединение, если сервер не прислал свой Keep-Alive
+    private Duration keepAlive = Duration.ofSeconds(30);
+}
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,8 +17,10 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.validation.BulkCreate;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -23,8 +30,8 @@ import java.util.List;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
-    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestHeader(USER_ID_HEADER) Long userId,
@@ -33,6 +40,17 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    // @Validated метода заменяет группы класса: к обычным проверкам добавляются обязательные при создании поля
+    @PostMapping("/batch")
+    @Validated({Default.class, BulkCreate.class})
+    public ResponseEntity<Object> addItems(@RequestHeader(USER_ID_HEADER) Long userId,
+                                           @RequestBody @NotEmpty(message = "Список не может быть пустым")
+                                           @Size(max = MAX_BATCH_SIZE, message = "Не больше " + MAX_BATCH_SIZE + " записей за запрос")
+                                           List<@Valid ItemDto> itemDtos) {
+        log.info("Массовое добавление предметов пользователем с ID {}: {}", userId, itemDtos.size());
+        return itemClient.addItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @PathVariable Long itemId,
@@ -42,52 +60,72 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemWithBookingsDto> getItemById(@PathVariable Long itemId) {
+    public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
         log.info("Получение предмета по ID: {}", itemId);
-        ResponseEntity<Object> response = itemClient.getItemById(itemId);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, ItemWithBookingsDto.class));
+        return itemClient.getItemById(itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getAllItemsByOwner(@RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Получение всех предметов пользователя с ID: {}", userId);
-        ResponseEntity<Object> response = itemClient.getAllItemsByOwner(userId);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, new TypeReference<List<ItemDto>>() {
-                }));
+    public ResponseEntity<Object> getAllItemsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                     @Positive @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String cursor) {
+        log.info("Получение всех предметов пользователя с ID: {}, from={}, size={}", userId, from, size);
+        return itemClient.getAllItemsByOwner(userId, from, size, cursor);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text) {
-        log.info("Поиск предметов по тексту: {}", text);
-        ResponseEntity<Object> response = itemClient.searchItems(text);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, new TypeReference<List<ItemDto>>() {
-                }));
+    public ResponseEntity<Object> searchItems(
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+            @RequestParam(defaultValue = "") String text,
+            @Valid ItemSearchFilter filter,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Поиск предметов по тексту: {}, {}, from={}, size={}", text, filter, from, size);
+        if (filter.isEmpty()) {
+            return itemClient.searchItems(text, from, size, ifNoneMatch);
+        }
+        if ((filter.getStart() == null) != (filter.getEnd() == null)) {
+            throw new IllegalArgumentException("Период поиска задается началом и концом вместе");
+        }
+        if (filter.getStart() != null && !filter.getStart().isBefore(filter.getEnd())) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше конца");
+        }
+        if ((filter.getLat() == null) != (filter.getLon() == null)) {
+            throw new IllegalArgumentException("Широта и долгота задаются вместе");
+        }
+        return itemClient.searchItems(userId, text, filter, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<CommentDto> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                 @PathVariable Long itemId,
-                                                 @Valid @RequestBody CommentDto commentDto) {
+    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
+                                             @PathVariable Long itemId,
+                                             @Valid @RequestBody CommentDto commentDto) {
         log.info("Добавление комментария к предмету с ID {}: {}", itemId, commentDto);
-        ResponseEntity<Object> response = itemClient.addComment(userId, itemId, commentDto);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, CommentDto.class));
+        return itemClient.addComment(userId, itemId, commentDto);
     }
 
-    protected <T> T convertResponse(ResponseEntity<Object> response, Class<T> clazz) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), clazz);
-        }
-        throw new RuntimeException("Failed to convert response to " + clazz.getSimpleName());
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(required = false) String cursor) {
+        log.info("Получение комментариев к предмету с ID {}, from={}, size={}", itemId, from, size);
+        return itemClient.getComments(itemId, from, size, cursor);
     }
 
-    protected  <T> T convertResponse(ResponseEntity<Object> response, TypeReference<T> typeReference) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), typeReference);
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение календаря занятости предмета с ID {}: from={}, to={}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше конца");
         }
-        throw new RuntimeException("Failed to convert response to " + typeReference.getType().getTypeName());
+        return itemClient.getAvailability(itemId, from, to);
     }
 }
\ No newline at end of file
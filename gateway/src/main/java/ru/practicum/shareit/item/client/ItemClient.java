@@ -4,49 +4,119 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    // Карточка вещи и поиск не зависят от пользователя, поэтому ключ - только путь и параметры
+    private final ResponseCache itemCards;
+    private final ResponseCache searchResults;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ResponseCacheProperties cacheProperties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
+        this.itemCards = new ResponseCache(cacheProperties.getItemCards());
+        this.searchResults = new ResponseCache(cacheProperties.getSearch());
     }
 
     public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        searchResults.evictAll();
+        return response;
+    }
+
+    public ResponseEntity<Object> addItems(Long userId, List<ItemDto> itemDtos) {
+        ResponseEntity<Object> response = post("/batch", userId, itemDtos);
+        searchResults.evictAll();
+        return response;
     }
 
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        itemCards.evict("/" + itemId);
+        searchResults.evictAll();
+        return response;
+    }
+
+    // Бронирования меняют последнее/следующее бронирование в карточке, вытесняет BookingClient
+    public void evictItemCard(long itemId) {
+        itemCards.evict("/" + itemId);
+    }
+
+    public void evictItemCards() {
+        itemCards.evictAll();
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId) {
-        return get("/" + itemId);
+    public ResponseEntity<Object> getItemById(Long itemId, @Nullable String ifNoneMatch) {
+        String path = "/" + itemId;
+        return itemCards.get(path, ifNoneMatch, () -> get(path));
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllItemsByOwner(Long userId, int from, int size, String cursor) {
+        return get("?" + PAGE_QUERY, userId, pageParameters(from, size, cursor));
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> searchItems(String text, int from, int size, @Nullable String ifNoneMatch) {
+        Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
+        String key = from + ":" + size + ":" + text;
+        return searchResults.get(key, ifNoneMatch,
+                () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
+    }
+
+    // Без кэша: свобода вещи в периоде меняется с каждым подтверждением брони, а центр поиска рядом может
+    // браться из координат пользователя - ни то, ни другое кэш поиска не видит
+    public ResponseEntity<Object> searchItems(@Nullable Long userId, String text, ItemSearchFilter filter,
+                                              int from, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "from", from, "size", size));
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        appendParameter(path, parameters, "start", filter.getStart());
+        appendParameter(path, parameters, "end", filter.getEnd());
+        appendParameter(path, parameters, "lat", filter.getLat());
+        appendParameter(path, parameters, "lon", filter.getLon());
+        appendParameter(path, parameters, "radius", filter.getRadius());
+        appendParameter(path, parameters, "nearest", filter.getNearest());
+        return get(path.toString(), userId, parameters);
+    }
+
+    private static void appendParameter(StringBuilder path, Map<String, Object> parameters, String name,
+                                        @Nullable Object value) {
+        if (value != null) {
+            path.append('&').append(name).append("={").append(name).append('}');
+            parameters.put(name, value);
+        }
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        itemCards.evict("/" + itemId);
+        return response;
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, int from, int size, String cursor) {
+        return get("/" + itemId + "/comments?" + PAGE_QUERY, null, pageParameters(from, size, cursor));
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, Map.of("from", from, "to", to));
     }
 }
\ No newline at end of file
@@ -1,12 +1,28 @@
 package ru.practicum.shareit.item.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
+import ru.practicum.shareit.validation.BulkCreate;
 
 @Data
 public class ItemDto {
     private Long id;
+    @NotBlank(groups = BulkCreate.class, message = "Название не может быть пустым")
     private String name;
+    @NotBlank(groups = BulkCreate.class, message = "Описание не может быть пустым")
+    @Size(max = 1000, groups = BulkCreate.class, message = "Описание не длиннее 1000 символов")
     private String description;
+    @NotNull(groups = BulkCreate.class, message = "Доступность должна быть указана")
     private Boolean available;
     private Long requestId;
+    @DecimalMin(value = "-90", message = "Широта должна быть от -90 до 90")
+    @DecimalMax(value = "90", message = "Широта должна быть от -90 до 90")
+    private Double latitude;
+    @DecimalMin(value = "-180", message = "Долгота должна быть от -180 до 180")
+    @DecimalMax(value = "180", message = "Долгота должна быть от -180 до 180")
+    private Double longitude;
 }
\ No newline at end of file
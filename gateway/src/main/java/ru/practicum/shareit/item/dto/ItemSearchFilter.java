@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ItemSearchFilter {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime start;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime end;
+    @DecimalMin(value = "-90", message = "Широта должна быть от -90 до 90")
+    @DecimalMax(value = "90", message = "Широта должна быть от -90 до 90")
+    private Double lat;
+    @DecimalMin(value = "-180", message = "Долгота должна быть от -180 до 180")
+    @DecimalMax(value = "180", message = "Долгота должна быть от -180 до 180")
+    private Double lon;
+    @Positive(message = "Радиус поиска должен быть положительным")
+    private Double radius;
+    @Positive(message = "Число ближайших вещей должно быть положительным")
+    private Integer nearest;
+
+    public boolean isEmpty() {
+        return start == null && end == null && lat == null && lon == null && radius == null && nearest == null;
+    }
+}
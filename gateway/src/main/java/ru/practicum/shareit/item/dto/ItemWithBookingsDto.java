@@ -1,20 +0,0 @@
-package ru.practicum.shareit.item.dto;
-
-import lombok.Data;
-import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.comments.dto.CommentDto;
-import ru.practicum.shareit.request.dto.ItemRequestDto;
-
-import java.util.List;
-
-@Data
-public class ItemWithBookingsDto {
-    private Long id;
-    private String name;
-    private String description;
-    private Boolean available;
-    private ItemRequestDto request;
-    private BookingDto lastBooking;
-    private BookingDto nextBooking;
-    private List<CommentDto> comments;
-}
\ No newline at end of file
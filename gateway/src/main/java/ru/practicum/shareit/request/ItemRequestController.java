@@ -1,10 +1,11 @@
 package ru.practicum.shareit.request;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,8 +14,6 @@ import ru.practicum.shareit.request.client.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.List;
-
 @Slf4j
 @Controller
 @RequestMapping("/requests")
@@ -22,7 +21,6 @@ import java.util.List;
 @Validated
 public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
-    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -35,43 +33,29 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<ItemRequestDto> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                         @PathVariable Long requestId) {
+    public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                 @PathVariable Long requestId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
         log.info("Получение запроса по ID: {}", requestId);
-        ResponseEntity<Object> response = itemRequestClient.getRequestById(userId, requestId);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, ItemRequestDto.class));
+        return itemRequestClient.getRequestById(userId, requestId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemRequestDto>> getAllRequestsByUser(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<Object> getAllRequestsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                       @Positive @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String cursor) {
         log.info("Получение всех запросов пользователя с ID: {}", userId);
-        ResponseEntity<Object> response = itemRequestClient.getAllRequestsByUser(userId);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, new TypeReference<List<ItemRequestDto>>() {
-                }));
+        return itemRequestClient.getAllRequestsByUser(userId, from, size, cursor);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Получение всех запросов");
-        ResponseEntity<Object> response = itemRequestClient.getAllRequests(userId);
-        return ResponseEntity.status(response.getStatusCode())
-                .body(convertResponse(response, new TypeReference<List<ItemRequestDto>>() {
-                }));
-    }
-
-    private <T> T convertResponse(ResponseEntity<Object> response, Class<T> clazz) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), clazz);
-        }
-        throw new RuntimeException("Failed to convert response to " + clazz.getSimpleName());
-    }
-
-    private <T> T convertResponse(ResponseEntity<Object> response, TypeReference<T> typeReference) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), typeReference);
-        }
-        throw new RuntimeException("Failed to convert response to " + typeReference.getType().getTypeName());
+    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                 @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                 @Positive @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) String cursor) {
+        log.info("Получение всех запросов, from={}, size={}", from, size);
+        return itemRequestClient.getAllRequests(userId, from, size, cursor);
     }
 }
\ No newline at end of file
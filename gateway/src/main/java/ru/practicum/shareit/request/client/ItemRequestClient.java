@@ -4,12 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -28,16 +28,15 @@ public class ItemRequestClient extends BaseClient {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public ResponseEntity<Object> getRequestById(Long userId, Long requestId, @Nullable String ifNoneMatch) {
+        return getIfNoneMatch("/" + requestId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllRequestsByUser(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllRequestsByUser(Long userId, int from, int size, String cursor) {
+        return get("?" + PAGE_QUERY, userId, pageParameters(from, size, cursor));
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId) {
-        Map<String, Object> parameters = Map.of("from", 0, "size", 10); // Пример параметров пагинации
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size, String cursor) {
+        return get("/all?" + PAGE_QUERY, userId, pageParameters(from, size, cursor));
     }
 }
\ No newline at end of file
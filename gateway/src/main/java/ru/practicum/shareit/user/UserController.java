@@ -1,17 +1,25 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.BulkCreate;
 
 import java.util.List;
 
+
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -19,6 +27,7 @@ import java.util.List;
 @Validated
 public class UserController {
     private final UserClient userClient;
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     @PostMapping
     public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
@@ -26,22 +35,36 @@ public class UserController {
         return userClient.createUser(userDto);
     }
 
+    // @Validated метода заменяет группы класса: к обычным проверкам добавляются обязательные при создании поля
+    @PostMapping("/batch")
+    @Validated({Default.class, BulkCreate.class})
+    public ResponseEntity<Object> createUsers(@RequestBody @NotEmpty(message = "Список не может быть пустым")
+                                              @Size(max = MAX_BATCH_SIZE, message = "Не больше " + MAX_BATCH_SIZE + " записей за запрос")
+                                              List<@Valid UserDto> userDtos) {
+        log.info("Массовое создание пользователей: {}", userDtos.size());
+        return userClient.createUsers(userDtos);
+    }
+
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
+    public ResponseEntity<Object> getUserById(@PathVariable Long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
         log.info("Получение пользователя по ID: {}", userId);
-        return ResponseEntity.ok(userClient.getUserById(userId));
+        return userClient.getUserById(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        log.info("Получение всех пользователей");
-        return ResponseEntity.ok(userClient.getAllUsers());
+    public ResponseEntity<Object> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(required = false) String cursor) {
+        log.info("Получение всех пользователей, from={}, size={}", from, size);
+        return userClient.getAllUsers(from, size, cursor);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<UserDto> updateUser(@PathVariable Long userId, @Valid @RequestBody UserDto userDto) {
+    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @Valid @RequestBody UserDto userDto) {
         log.info("Обновление пользователя с ID {}: {}", userId, userDto);
-        return ResponseEntity.ok(userClient.updateUser(userId, userDto));
+        return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
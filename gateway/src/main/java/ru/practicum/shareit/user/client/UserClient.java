@@ -1,16 +1,17 @@
 package ru.practicum.shareit.user.client;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -34,20 +35,20 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
-    public UserDto getUserById(Long userId) {
-        ResponseEntity<Object> response = get("/" + userId);
-        return convertResponse(response, UserDto.class);
+    public ResponseEntity<Object> createUsers(List<UserDto> userDtos) {
+        return post("/batch", userDtos);
     }
 
-    public List<UserDto> getAllUsers() {
-        ResponseEntity<Object> response = get("");
-        return convertResponse(response, new TypeReference<List<UserDto>>() {
-        });
+    public ResponseEntity<Object> getUserById(Long userId, @Nullable String ifNoneMatch) {
+        return getIfNoneMatch("/" + userId, null, ifNoneMatch);
     }
 
-    public UserDto updateUser(Long userId, UserDto userDto) {
-        ResponseEntity<Object> response = patch("/" + userId, userDto);
-        return convertResponse(response, UserDto.class);
+    public ResponseEntity<Object> getAllUsers(int from, int size, String cursor) {
+        return get("?" + PAGE_QUERY, null, pageParameters(from, size, cursor));
+    }
+
+    public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
+        return patch("/" + userId, userDto);
     }
 
     public void deleteUser(Long userId) {
@@ -60,17 +61,15 @@ public class UserClient extends BaseClient {
         return convertResponse(response, Boolean.class);
     }
 
+    // Тело ответа BaseClient - сырые байты сервера, разбираем только там, где значение нужно самому gateway
     private <T> T convertResponse(ResponseEntity<Object> response, Class<T> clazz) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), clazz);
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() instanceof byte[] body) {
+            try {
+                return objectMapper.readValue(body, clazz);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to convert response to " + clazz.getSimpleName(), e);
+            }
         }
         throw new RuntimeException("Failed to convert response to " + clazz.getSimpleName());
     }
-
-    private <T> T convertResponse(ResponseEntity<Object> response, TypeReference<T> typeReference) {
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return objectMapper.convertValue(response.getBody(), typeReference);
-        }
-        throw new RuntimeException("Failed to convert response to " + typeReference.getType().getTypeName());
-    }
-}
\ No newline at end of file
+}
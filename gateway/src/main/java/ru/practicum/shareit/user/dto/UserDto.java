@@ -1,12 +1,24 @@
 package ru.practicum.shareit.user.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import ru.practicum.shareit.validation.BulkCreate;
 
 @Data
 public class UserDto {
     private Long id;
+    @NotBlank(groups = BulkCreate.class, message = "Имя не может быть пустым")
     private String name;
+    @NotBlank(groups = BulkCreate.class, message = "Email не может быть пустым")
     @Email(message = "Некорректный формат email")
     private String email;
+    @DecimalMin(value = "-90", message = "Широта должна быть от -90 до 90")
+    @DecimalMax(value = "90", message = "Широта должна быть от -90 до 90")
+    private Double latitude;
+    @DecimalMin(value = "-180", message = "Долгота должна быть от -180 до 180")
+    @DecimalMax(value = "180", message = "Долгота должна быть от -180 до 180")
+    private Double longitude;
 }
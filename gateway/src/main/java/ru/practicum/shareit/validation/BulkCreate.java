@@ -0,0 +1,6 @@
+package ru.practicum.shareit.validation;
+
+// Группа проверок элементов массового создания: одиночный POST по-прежнему проверяет только формат полей,
+// а в пачке каждую запись отбраковывает gateway, не доводя ее до транзакции сервера
+public interface BulkCreate {
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ResponseCacheTest {
+    private ResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(new ResponseCacheProperties.Region(100, Duration.ofMinutes(1)));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldLoadOnceAndAnswerMatchingEtagWithNotModified() {
+        ResponseEntity<Object> first = cache.get("/1", null, () -> load("card"));
+        ResponseEntity<Object> second = cache.get("/1", first.getHeaders().getETag(), () -> load("card"));
+
+        assertEquals(1, loads.get());
+        assertNotNull(first.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+    }
+
+    @Test
+    void evict_shouldForceReloadWithNewEtag() {
+        String staleEtag = cache.get("/1", null, () -> load("old")).getHeaders().getETag();
+
+        cache.evict("/1");
+        ResponseEntity<Object> response = cache.get("/1", staleEtag, () -> load("new"));
+
+        assertEquals(2, loads.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(bytes("new"), (byte[]) response.getBody());
+    }
+
+    @Test
+    void get_whenEvictedDuringLoad_shouldNotCacheLoadedResponse() {
+        cache.get("/1", null, () -> {
+            cache.evict("/1");
+            return load("stale");
+        });
+        ResponseEntity<Object> response = cache.get("/1", null, () -> load("fresh"));
+
+        assertEquals(2, loads.get());
+        assertArrayEquals(bytes("fresh"), (byte[]) response.getBody());
+    }
+
+    @Test
+    void get_shouldNotCacheErrors() {
+        cache.get("/1", null, () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        });
+        cache.get("/1", null, () -> load("card"));
+
+        assertEquals(2, loads.get());
+    }
+
+    private ResponseEntity<Object> load(String body) {
+        loads.incrementAndGet();
+        return ResponseEntity.ok(bytes(body));
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Приложение из исполняемого jar в отдельной JVM: нагрузка идет через настоящий HTTP, как в docker-compose
+class AppProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String name;
+    private final int port;
+    private final Process process;
+
+    private AppProcess(String name, int port, Process process) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+    }
+
+    static AppProcess start(String name, Path jar, int port, boolean virtualThreads, Path log, String... args)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден " + jar + ": сначала соберите проект (mvn package)");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        Arrays.stream(args)
+                .flatMap(arg -> Arrays.stream(arg.trim().split("\\s+")))
+                .filter(arg -> !arg.isEmpty())
+                .forEach(command::add);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().put("SHAREIT_VIRTUAL_THREADS", String.valueOf(virtualThreads));
+        return new AppProcess(name, port, builder.start());
+    }
+
+    void awaitHealthy(HttpClient http) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился при запуске, код " + process.exitValue());
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Порт еще не открыт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+// Задержки одного эндпоинта за фазу измерения; перцентили считаются по полной выборке
+class EndpointStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(String endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(endpoint, count, errors, count / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(count == 0 ? 0 : sorted[count - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    record Summary(String endpoint, int count, int errors, double throughput,
+                   double p50Ms, double p99Ms, double maxMs) {
+    }
+}
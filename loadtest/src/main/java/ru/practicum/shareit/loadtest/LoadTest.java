@@ -0,0 +1,94 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Нагрузочный прогон шлюз -> сервер -> БД: поднимает оба приложения из собранных jar,
+// наполняет базу через API, прогревает и измеряет смешанную нагрузку, печатает p50/p99 и пропускную способность.
+// Сравнение платформенных и виртуальных потоков: два прогона с -Dloadtest.virtual-threads=true/false.
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Path logs = config.result().toAbsolutePath().getParent();
+
+        try (AppProcess server = AppProcess.start("server", config.serverJar(), config.serverPort(),
+                config.virtualThreads(), logs.resolve("loadtest-server.log"),
+                "--spring.profiles.active=dev", config.serverArgs());
+             AppProcess gateway = AppProcess.start("gateway", config.gatewayJar(), config.gatewayPort(),
+                     config.virtualThreads(), logs.resolve("loadtest-gateway.log"),
+                     "--shareit-server.url=http://localhost:" + config.serverPort(), config.gatewayArgs())) {
+            server.awaitHealthy(http);
+            gateway.awaitHealthy(http);
+
+            Workload workload = new Workload(http, objectMapper, config.gatewayPort());
+            workload.seed(config.users(), config.itemsPerOwner());
+            System.out.printf("Данные: %d пользователей, по %d вещей у каждого владельца%n",
+                    config.users(), config.itemsPerOwner());
+
+            run(workload, config.clients(), config.warmup());
+            workload.resetStats();
+            run(workload, config.clients(), config.duration());
+
+            List<EndpointStats.Summary> summaries = new ArrayList<>();
+            double seconds = config.duration().toMillis() / 1000.0;
+            workload.stats().forEach((endpoint, stats) -> summaries.add(stats.summarize(endpoint, seconds)));
+            print(config, summaries);
+            write(objectMapper, config, summaries);
+        }
+    }
+
+    private static void run(Workload workload, int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> workload.runClient(deadline));
+            }
+        }
+    }
+
+    private static void print(LoadTestConfig config, List<EndpointStats.Summary> summaries) {
+        System.out.printf("%nКлиентов: %d, длительность: %s, виртуальные потоки: %s%n",
+                config.clients(), config.duration(), config.virtualThreads());
+        System.out.printf("%-26s %9s %7s %10s %10s %10s %10s%n",
+                "Эндпоинт", "Запросов", "Ошибок", "Запр/с", "p50, мс", "p99, мс", "max, мс");
+        for (EndpointStats.Summary s : summaries) {
+            System.out.printf("%-26s %9d %7d %10.1f %10.2f %10.2f %10.2f%n",
+                    s.endpoint(), s.count(), s.errors(), s.throughput(), s.p50Ms(), s.p99Ms(), s.maxMs());
+        }
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadTestConfig config,
+                              List<EndpointStats.Summary> summaries) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("clients", config.clients());
+        result.put("durationSeconds", config.duration().toSeconds());
+        result.put("virtualThreads", config.virtualThreads());
+        result.put("users", config.users());
+        result.put("itemsPerOwner", config.itemsPerOwner());
+        result.put("endpoints", summaries);
+        Files.write(config.result(), objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(result));
+        System.out.println("Результат сохранен в " + config.result());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Параметры прогона задаются системными свойствами -Dloadtest.*
+record LoadTestConfig(Path serverJar,
+                      Path gatewayJar,
+                      int serverPort,
+                      int gatewayPort,
+                      String serverArgs,
+                      String gatewayArgs,
+                      boolean virtualThreads,
+                      int users,
+                      int itemsPerOwner,
+                      int clients,
+                      Duration warmup,
+                      Duration duration,
+                      Path result) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Path.of(required("loadtest.server.jar")),
+                Path.of(required("loadtest.gateway.jar")),
+                Integer.getInteger("loadtest.server.port", 19090),
+                Integer.getInteger("loadtest.gateway.port", 18080),
+                System.getProperty("loadtest.server.args", ""),
+                System.getProperty("loadtest.gateway.args", ""),
+                Boolean.parseBoolean(System.getProperty("loadtest.virtual-threads", "true")),
+                Integer.getInteger("loadtest.users", 400),
+                Integer.getInteger("loadtest.items-per-owner", 20),
+                Integer.getInteger("loadtest.clients", 200),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Path.of(System.getProperty("loadtest.result", "loadtest-result.json")));
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Не задано свойство " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Смешанная нагрузка через шлюз: поиск, карточка вещи, бронирование с подтверждением, комментарий.
+// Каждый клиент шлет следующий запрос сразу после ответа на предыдущий (замкнутая модель).
+class Workload {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповерт", "лестница", "палатка",
+            "велосипед", "пила", "болгарка", "генератор", "мойка", "каяк", "проектор"};
+
+    static final String SEARCH = "GET /items/search";
+    static final String ITEM_CARD = "GET /items/{id}";
+    static final String CREATE_BOOKING = "POST /bookings";
+    static final String APPROVE_BOOKING = "PATCH /bookings/{id}";
+    static final String ADD_COMMENT = "POST /items/{id}/comment";
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<Long> bookers = new ArrayList<>();
+    private final List<SeededItem> items = new ArrayList<>();
+    private final List<long[]> finishedBookings = new ArrayList<>();
+    // Слоты бронирований не пересекаются, поэтому подтверждение не упирается в проверку пересечений
+    private final AtomicLong bookingSlot = new AtomicLong();
+    private final LocalDateTime bookingBase = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    Workload(HttpClient http, ObjectMapper objectMapper, int gatewayPort) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = "http://localhost:" + gatewayPort;
+    }
+
+    void seed(int users, int itemsPerOwner) throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<Map<String, Object>> userDtos = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userDtos.add(Map.of("name", "Пользователь " + i, "email", "user" + i + "-" + run + "@loadtest.ru"));
+        }
+        List<Long> owners = new ArrayList<>();
+        JsonNode createdUsers = expectOk(post("/users/batch", null, userDtos));
+        for (int i = 0; i < createdUsers.size(); i++) {
+            // Четверть пользователей сдает вещи, остальные арендуют
+            (i % 4 == 0 ? owners : bookers).add(createdUsers.get(i).get("id").asLong());
+        }
+
+        for (Long owner : owners) {
+            List<Map<String, Object>> itemDtos = new ArrayList<>();
+            for (int i = 0; i < itemsPerOwner; i++) {
+                String word = WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+                itemDtos.add(Map.of("name", capitalize(word) + " " + owner + "-" + i,
+                        "description", "Почти новая " + word + ", выдается с инструкцией", "available", true));
+            }
+            for (JsonNode item : expectOk(post("/items/batch", owner, itemDtos))) {
+                items.add(new SeededItem(item.get("id").asLong(), owner));
+            }
+        }
+
+        // Комментировать можно только после завершенной аренды: у каждого арендатора есть короткая прошлая бронь
+        LocalDateTime lastEnd = LocalDateTime.now();
+        for (Long booker : bookers) {
+            SeededItem item = randomItem();
+            LocalDateTime start = LocalDateTime.now().plusSeconds(1);
+            lastEnd = start.plusSeconds(1);
+            expectOk(post("/bookings", booker, Map.of("itemId", item.id(), "start", start, "end", lastEnd)));
+            finishedBookings.add(new long[]{booker, item.id()});
+        }
+        long wait = Duration.between(LocalDateTime.now(), lastEnd).toMillis() + 1000;
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    // Начинает новую фазу: статистика прогрева отбрасывается
+    void resetStats() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    Map<String, EndpointStats> stats() {
+        return new TreeMap<>(stats);
+    }
+
+    void runClient(long deadlineNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadlineNanos) {
+            int dice = random.nextInt(100);
+            try {
+                if (dice < 40) {
+                    search();
+                } else if (dice < 80) {
+                    itemCard();
+                } else if (dice < 92) {
+                    bookAndApprove();
+                } else {
+                    comment();
+                }
+            } catch (IOException e) {
+                // Ошибка соединения уже учтена в статистике эндпоинта
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void search() throws IOException, InterruptedException {
+        String word = WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+        // Часть запросов ищет по началу слова, как при наборе текста
+        String text = ThreadLocalRandom.current().nextBoolean() ? word : word.substring(0, 4);
+        timed(SEARCH, get("/items/search?size=10&text=" + URLEncoder.encode(text, StandardCharsets.UTF_8),
+                randomBooker()));
+    }
+
+    private void itemCard() throws IOException, InterruptedException {
+        timed(ITEM_CARD, get("/items/" + randomItem().id(), randomBooker()));
+    }
+
+    private void bookAndApprove() throws IOException, InterruptedException {
+        SeededItem item = randomItem();
+        LocalDateTime start = bookingBase.plusHours(2 * bookingSlot.getAndIncrement());
+        HttpResponse<String> created = timed(CREATE_BOOKING, post("/bookings", randomBooker(),
+                Map.of("itemId", item.id(), "start", start, "end", start.plusHours(1))));
+        if (isOk(created)) {
+            long bookingId = objectMapper.readTree(created.body()).get("id").asLong();
+            timed(APPROVE_BOOKING, request("/bookings/" + bookingId + "?approved=true", item.owner())
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build());
+        }
+    }
+
+    private void comment() throws IOException, InterruptedException {
+        long[] booking;
+        synchronized (finishedBookings) {
+            booking = finishedBookings.get(ThreadLocalRandom.current().nextInt(finishedBookings.size()));
+        }
+        timed(ADD_COMMENT, post("/items/" + booking[1] + "/comment", booking[0],
+                Map.of("text", "Все работает, спасибо")));
+    }
+
+    private HttpResponse<String> timed(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            endpointStats.record(System.nanoTime() - start, isOk(response));
+            return response;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private JsonNode expectOk(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (!isOk(response)) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " вернул "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest post(String path, Long userId, Object body) throws IOException {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT);
+        if (userId != null) {
+            builder.header(USER_ID_HEADER, userId.toString());
+        }
+        return builder;
+    }
+
+    private SeededItem randomItem() {
+        return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+    }
+
+    private Long randomBooker() {
+        return bookers.get(ThreadLocalRandom.current().nextInt(bookers.size()));
+    }
+
+    private static boolean isOk(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private record SeededItem(long id, long owner) {
+    }
+}
@@ -21,11 +21,11 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
@@ -33,6 +33,10 @@ public class Booking {
     @Column(nullable = false)
     private Status status;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum Status {
         WAITING,
         APPROVED,
@@ -1,12 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 //Если в сервере пишу аннотацию @Controller вместо @RestController, то работа приложения идет с ошибками
 // и все тесты сразу валятся, поэтому пометил @Controller-ом только gateway
@@ -15,7 +25,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
 
     @PostMapping
@@ -36,7 +48,54 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId, @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getAllBookingsByOwner(userId, state);
+    public ResponseEntity<List<BookingDto>> getAllBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                  @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                                  @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                                  @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(bookingService.getAllBookingsByOwner(userId, state, PageParams.of(from, size, cursor)),
+                BookingController::cursorOf);
+    }
+
+    @GetMapping("/owner")
+    public ResponseEntity<List<BookingDto>> getAllBookingsByItemOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                      @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                      @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                                      @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                                      @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(bookingService.getAllBookingsByItemOwner(userId, state, PageParams.of(from, size, cursor)),
+                BookingController::cursorOf);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId) {
+        bookingService.checkUserExists(userId);
+        return toNdjson(consumer -> bookingService.exportBookingsByOwner(userId, consumer));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemOwner(@RequestHeader(USER_ID_HEADER) Long userId) {
+        bookingService.checkUserExists(userId);
+        return toNdjson(consumer -> bookingService.exportBookingsByItemOwner(userId, consumer));
+    }
+
+    // Одна строка JSON на бронирование, пишется в ответ сразу после чтения из базы.
+    // Пользователя проверяют до вызова: когда тело уже пишется, Content-Type выбран и ошибку не отдать как JSON
+    private ResponseEntity<StreamingResponseBody> toNdjson(Consumer<Consumer<BookingDto>> export) {
+        StreamingResponseBody body = out -> export.accept(booking -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    private static String cursorOf(BookingDto booking) {
+        return KeysetCursor.encode(booking.getStart(), booking.getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Календарь занятости вещей: по биту на час в двух картах - подтвержденные (BUSY) и ожидающие (PENDING) брони -
+// на горизонт вперед от текущего часа. Карта вещи строится одним запросом при первом обращении,
+// дальше ее правят createBooking и approveBooking после коммита, и ответ календаря брони не читает.
+// Бронь занимает каждый час, который задевает хотя бы частично
+@Component
+public class AvailabilityCalendar {
+    // Карта строится с запасом в сутки сверх горизонта и до его исчерпания не перестраивается
+    private static final int SLACK_HOURS = 24;
+    private static final List<Booking.Status> CALENDAR_STATUSES = List.of(Booking.Status.APPROVED,
+            Booking.Status.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemCalendar> calendars;
+    private final int horizonHours;
+
+    public AvailabilityCalendar(BookingRepository bookingRepository,
+                                @Value("${shareit.availability.horizon-days:90}") int horizonDays,
+                                @Value("${shareit.availability.max-items:10000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .build();
+        this.horizonHours = horizonDays * 24;
+    }
+
+    public enum SlotStatus {
+        FREE,
+        PENDING,
+        BUSY
+    }
+
+    // Интервалы одного статуса подряд, по границам часов; вызывать внутри транзакции - карта может строиться
+    public List<AvailabilitySlotDto> getSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long currentHour = hourOf(LocalDateTime.now());
+        long fromHour = hourOf(from);
+        long toHour = ceilHour(to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+        if (fromHour < currentHour) {
+            throw new ValidationException("Календарь не показывает прошедшие часы");
+        }
+        if (toHour > currentHour + horizonHours) {
+            throw new ValidationException("Календарь строится не дальше чем на " + horizonHours / 24 + " дней вперед");
+        }
+
+        ItemCalendar calendar = calendarOf(itemId, currentHour);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        long runStart = fromHour;
+        SlotStatus runStatus = calendar.statusAt(fromHour);
+        for (long hour = fromHour + 1; hour < toHour; hour++) {
+            SlotStatus status = calendar.statusAt(hour);
+            if (status != runStatus) {
+                slots.add(new AvailabilitySlotDto(timeOf(runStart), timeOf(hour), runStatus.name()));
+                runStart = hour;
+                runStatus = status;
+            }
+        }
+        slots.add(new AvailabilitySlotDto(timeOf(runStart), timeOf(toHour), runStatus.name()));
+        return slots;
+    }
+
+    public void bookingCreated(Long itemId, LocalDateTime start, LocalDateTime end) {
+        AfterCommit.run(() -> calendars.asMap().computeIfPresent(itemId,
+                (id, calendar) -> calendar.mark(false, hourOf(start), ceilHour(end))));
+    }
+
+    public void bookingApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        AfterCommit.run(() -> calendars.asMap().computeIfPresent(itemId,
+                (id, calendar) -> calendar.mark(true, hourOf(start), ceilHour(end))));
+    }
+
+    // Отклоненная бронь могла делить часы с другими ожидающими, поэтому биты не снимаем, а строим карту заново
+    public void bookingRejected(Long itemId) {
+        AfterCommit.run(() -> calendars.invalidate(itemId));
+    }
+
+    public void clear() {
+        calendars.invalidateAll();
+    }
+
+    private ItemCalendar calendarOf(Long itemId, long currentHour) {
+        ItemCalendar calendar = calendars.get(itemId, id -> load(id, currentHour));
+        if (calendar.baseHour + SLACK_HOURS < currentHour) {
+            calendar = calendars.asMap().compute(itemId, (id, stale) ->
+                    stale != null && stale.baseHour + SLACK_HOURS >= currentHour ? stale : load(id, currentHour));
+        }
+        return calendar;
+    }
+
+    private ItemCalendar load(Long itemId, long baseHour) {
+        ItemCalendar calendar = new ItemCalendar(baseHour, horizonHours + SLACK_HOURS, new BitSet(), new BitSet());
+        for (BookingRepository.CalendarInterval interval : bookingRepository.findCalendarIntervals(itemId,
+                CALENDAR_STATUSES, timeOf(baseHour), timeOf(baseHour + calendar.capacity))) {
+            calendar = calendar.mark(interval.getStatus() == Booking.Status.APPROVED,
+                    hourOf(interval.getStart()), ceilHour(interval.getEnd()));
+        }
+        return calendar;
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    private static long ceilHour(LocalDateTime time) {
+        long hour = hourOf(time);
+        return timeOf(hour).equals(time) ? hour : hour + 1;
+    }
+
+    private static LocalDateTime timeOf(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC);
+    }
+
+    // Карты не меняются после публикации: правка копирует пару BitSet, читатели обходятся без блокировок
+    private record ItemCalendar(long baseHour, int capacity, BitSet busy, BitSet pending) {
+        ItemCalendar mark(boolean approved, long fromHour, long toHour) {
+            int from = (int) Math.max(0, fromHour - baseHour);
+            int to = (int) Math.min(capacity, toHour - baseHour);
+            if (from >= to) {
+                return this;
+            }
+            BitSet busyCopy = approved ? (BitSet) busy.clone() : busy;
+            BitSet pendingCopy = approved ? pending : (BitSet) pending.clone();
+            (approved ? busyCopy : pendingCopy).set(from, to);
+            return new ItemCalendar(baseHour, capacity, busyCopy, pendingCopy);
+        }
+
+        SlotStatus statusAt(long hour) {
+            int index = (int) (hour - baseHour);
+            if (busy.get(index)) {
+                return SlotStatus.BUSY;
+            }
+            return pending.get(index) ? SlotStatus.PENDING : SlotStatus.FREE;
+        }
+    }
+}
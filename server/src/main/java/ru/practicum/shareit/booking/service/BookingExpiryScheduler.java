@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// shareit.booking.expiry.enabled=false отключает проход (в тестах его вызывают напрямую)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BookingExpiryScheduler {
+    private final BookingExpiryService bookingExpiryService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval:PT1M}",
+            initialDelayString = "${shareit.booking.expiry.interval:PT1M}")
+    public void expireStaleBookings() {
+        bookingExpiryService.expireStaleBookings();
+    }
+}
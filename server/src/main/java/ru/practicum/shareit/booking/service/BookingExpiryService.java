@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Жизненный цикл броней вне запросов: бронь, которую владелец так и не рассмотрел до ее окончания, отклоняется.
+// Обновление идет пачками в отдельных транзакциях, чтобы не держать блокировки на всех строках сразу
+@Slf4j
+@Service
+public class BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary sweepSize;
+    private final int batchSize;
+
+    public BookingExpiryService(BookingRepository bookingRepository,
+                                AvailabilityCalendar availabilityCalendar,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.expiry.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityCalendar = availabilityCalendar;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepSize = DistributionSummary.builder("booking.expiry.sweep.bookings")
+                .description("Сколько броней отклонил один проход")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    public int expireStaleBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> expireBatch(now));
+            total += updated;
+        } while (updated == batchSize);
+        sweepSize.record(total);
+        if (total > 0) {
+            log.info("Отклонено нерассмотренных завершившихся броней: {}", total);
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<BookingRepository.BookingItemId> batch = bookingRepository.findIdsByStatusAndEndBefore(
+                Booking.Status.WAITING, now, PageRequest.ofSize(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream()
+                .map(BookingRepository.BookingItemId::getId)
+                .toList();
+        // Условие на статус повторяется в UPDATE: бронь могли подтвердить между выборкой и обновлением
+        int updated = bookingRepository.updateStatusIfWaiting(ids, Booking.Status.REJECTED);
+        // Как при ручном отклонении: календарь вещи перестраивается, а не правится по битам
+        batch.stream()
+                .map(BookingRepository.BookingItemId::getItemId)
+                .distinct()
+                .forEach(availabilityCalendar::bookingRejected);
+        return updated;
+    }
+}
@@ -1,27 +1,181 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.Status;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerAndStatus(User booker, Status status);
+    // Вещь и арендатор нужны BookingMapper.toDto для каждой строки: забираем их тем же запросом
+    String SELECT_WITH_DETAILS = "SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker";
 
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime start, LocalDateTime end);
+    // Бронирования вещей владельца одним join: items(owner_id) дает вещи, bookings(item_id, start_date) - их брони
+    String SELECT_OWNER_WITH_DETAILS = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = :ownerId";
 
-    List<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime end);
+    // Keyset-продолжение по (start_date, id) в порядке убывания: страница строго после курсора
+    String EXPORT_FETCH_SIZE = "500";
 
-    List<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime start);
+    String AFTER_CURSOR = " AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))" +
+            " ORDER BY b.start DESC, b.id DESC";
 
-    List<Booking> findAllByBookerOrderByStartDesc(User booker);
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId" + AFTER_CURSOR)
+    Slice<Booking> findBookerBookings(@Param("bookerId") Long bookerId,
+                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
 
-    List<Booking> findAllByItemIdOrderByStartAsc(Long itemId);
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId " +
+            "AND b.start < :now AND b.end > :now" + AFTER_CURSOR)
+    Slice<Booking> findBookerCurrentBookings(@Param("bookerId") Long bookerId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId AND b.end < :now" + AFTER_CURSOR)
+    Slice<Booking> findBookerPastBookings(@Param("bookerId") Long bookerId,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId AND b.start > :now" + AFTER_CURSOR)
+    Slice<Booking> findBookerFutureBookings(@Param("bookerId") Long bookerId,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId AND b.status = :status" + AFTER_CURSOR)
+    Slice<Booking> findBookerBookingsByStatus(@Param("bookerId") Long bookerId,
+                                              @Param("status") Status status,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    // Выгрузка всей истории: курсор JDBC читает строки порциями по fetch size, а не весь результат сразу.
+    // В PostgreSQL fetch size работает только внутри транзакции
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :bookerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamBookerBookings(@Param("bookerId") Long bookerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_OWNER_WITH_DETAILS + " ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamOwnerBookings(@Param("ownerId") Long ownerId);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Query(SELECT_OWNER_WITH_DETAILS + AFTER_CURSOR)
+    Slice<Booking> findOwnerBookings(@Param("ownerId") Long ownerId,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query(SELECT_OWNER_WITH_DETAILS + " AND b.start < :now AND b.end > :now" + AFTER_CURSOR)
+    Slice<Booking> findOwnerCurrentBookings(@Param("ownerId") Long ownerId,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @Query(SELECT_OWNER_WITH_DETAILS + " AND b.end < :now" + AFTER_CURSOR)
+    Slice<Booking> findOwnerPastBookings(@Param("ownerId") Long ownerId,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    @Query(SELECT_OWNER_WITH_DETAILS + " AND b.start > :now" + AFTER_CURSOR)
+    Slice<Booking> findOwnerFutureBookings(@Param("ownerId") Long ownerId,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @Query(SELECT_OWNER_WITH_DETAILS + " AND b.status = :status" + AFTER_CURSOR)
+    Slice<Booking> findOwnerBookingsByStatus(@Param("ownerId") Long ownerId,
+                                             @Param("status") Status status,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    // Последнее завершенное подтвержденное бронирование каждой вещи из списка: одна выборка на всю страницу,
+    // коррелированный MAX по индексу bookings(item_id, start_date) вместо всей истории вещи
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.end < :now " +
+            "AND b.start = (SELECT MAX(l.start) FROM Booking l " +
+            "WHERE l.item.id = b.item.id AND l.status = :status AND l.end < :now)")
+    List<Booking> findLastBookings(@Param("itemIds") Collection<Long> itemIds,
+                                   @Param("status") Status status,
+                                   @Param("now") LocalDateTime now);
+
+    // Ближайшее будущее бронирование каждой вещи из списка
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker " +
+            "WHERE b.item.id IN :itemIds AND b.start > :now " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id AND n.start > :now)")
+    List<Booking> findNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                   @Param("now") LocalDateTime now);
+
+    // Подтвержденные брони вещи не пересекаются, поэтому из заканчивающихся после start достаточно первой по end:
+    // если и она начинается не раньше end нового интервала, пересечений нет. Один спуск по bookings(item_id, status, end_date)
+    Optional<Booking> findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(Long itemId, Status status, LocalDateTime start);
+
+    // То же без самой проверяемой брони
+    Optional<Booking> findFirstByItemIdAndStatusAndIdNotAndEndAfterOrderByEndAsc(Long itemId, Status status, Long bookingId,
+                                                                                LocalDateTime start);
+
+    // Переход из WAITING одним UPDATE: из параллельных запросов строку меняет только первый, остальные получают 0
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = ru.practicum.shareit.booking.Booking.Status.WAITING")
+    int updateStatusIfWaiting(@Param("bookingId") Long bookingId, @Param("status") Status status);
+
+    // Пачка броней для фонового прохода BookingExpiryService, по индексу bookings(status, end_date);
+    // вещь нужна, чтобы сбросить ее календарь
+    @Query("SELECT b.id AS id, b.item.id AS itemId FROM Booking b WHERE b.status = :status AND b.end < :now")
+    List<BookingItemId> findIdsByStatusAndEndBefore(@Param("status") Status status, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    // Вещи, которые бронировал пользователь: при его удалении брони исчезают каскадом
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds AND b.status = ru.practicum.shareit.booking.Booking.Status.WAITING")
+    int updateStatusIfWaiting(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") Status status);
+
+    // Подтвержденные и ожидающие брони вещи, пересекающие окно календаря: AvailabilityCalendar строит по ним
+    // битовые карты один раз на вещь, по индексу bookings(item_id, start_date)
+    @Query("SELECT b.start AS start, b.end AS end, b.status AS status FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :to AND b.end > :from")
+    List<CalendarInterval> findCalendarIntervals(@Param("itemId") Long itemId,
+                                                 @Param("statuses") Collection<Status> statuses,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.booker.id = :bookerId " +
@@ -29,4 +183,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.end < :currentTime")
     boolean existsByBookerIdAndItemIdAndEndBefore(@Param("bookerId") Long bookerId, @Param("itemId") Long itemId,
                                                   @Param("currentTime") LocalDateTime currentTime);
-}
\ No newline at end of file
+
+    interface BookingItemId {
+        Long getId();
+
+        Long getItemId();
+    }
+
+    interface CalendarInterval {
+        LocalDateTime getStart();
+
+        LocalDateTime getEnd();
+
+        Status getStatus();
+    }
+}
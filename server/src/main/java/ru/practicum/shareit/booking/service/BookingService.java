@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.pagination.PageParams;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingDto bookingDto);
@@ -13,5 +15,15 @@ public interface BookingService {
 
     BookingDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingDto> getAllBookingsByOwner(Long userId, BookingState state);
+    Slice<BookingDto> getAllBookingsByOwner(Long userId, BookingState state, PageParams page);
+
+    Slice<BookingDto> getAllBookingsByItemOwner(Long ownerId, BookingState state, PageParams page);
+
+    // Отдельно от выгрузки: контроллер проверяет пользователя до того, как начнет потоковый ответ
+    void checkUserExists(Long userId);
+
+    // Вся история без пагинации: бронирования передаются в consumer по мере чтения и не накапливаются в памяти
+    void exportBookingsByOwner(Long userId, Consumer<BookingDto> consumer);
+
+    void exportBookingsByItemOwner(Long ownerId, Consumer<BookingDto> consumer);
 }
\ No newline at end of file
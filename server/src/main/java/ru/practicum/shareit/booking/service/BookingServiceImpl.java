@@ -1,33 +1,62 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
+    private final EntityLoader entityLoader;
+    private final EntityManager entityManager;
+    private final AvailabilityCalendar availabilityCalendar;
+
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final RoleFinders BOOKER_FINDERS = new RoleFinders(
+            BookingRepository::findBookerCurrentBookings,
+            BookingRepository::findBookerPastBookings,
+            BookingRepository::findBookerFutureBookings,
+            BookingRepository::findBookerBookingsByStatus,
+            BookingRepository::findBookerBookings);
+    private static final RoleFinders OWNER_FINDERS = new RoleFinders(
+            BookingRepository::findOwnerCurrentBookings,
+            BookingRepository::findOwnerPastBookings,
+            BookingRepository::findOwnerFutureBookings,
+            BookingRepository::findOwnerBookingsByStatus,
+            BookingRepository::findOwnerBookings);
 
     @Override
+    @Transactional
     public BookingDto createBooking(Long userId, BookingDto bookingDto) {
-        User booker = userRepository.findById(userId)
+        User booker = entityLoader.find(User.class, userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = entityLoader.find(Item.class, bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + bookingDto.getItemId() + " не найдена"));
         if (!item.getAvailable()) {
             throw new RuntimeException("Вещь недоступна для бронирования");
@@ -35,6 +64,8 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new RuntimeException("Владелец не может бронировать свою вещь");
         }
+        checkNoApprovedOverlap(bookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(item.getId(),
+                Booking.Status.APPROVED, bookingDto.getStart()), bookingDto.getEnd());
         Booking booking = new Booking();
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
@@ -42,10 +73,12 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setStatus(Booking.Status.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        availabilityCalendar.bookingCreated(item.getId(), savedBooking.getStart(), savedBooking.getEnd());
         return BookingMapper.toDto(savedBooking);
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(Long userId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено"));
@@ -53,11 +86,38 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Только владелец может подтвердить бронирование");
         }
         if (booking.getStatus() != Booking.Status.WAITING) {
-            throw new RuntimeException("Бронирование уже обработано");
+            throw new ConflictException("Бронирование с id=" + bookingId + " уже обработано");
+        }
+        if (approved) {
+            // Пока строка вещи заблокирована, параллельное подтверждение другой брони этой вещи ждет нас.
+            // Саму бронь исключаем: если ее уже подтвердил параллельный запрос, ответит условный UPDATE ниже
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            checkNoApprovedOverlap(bookingRepository.findFirstByItemIdAndStatusAndIdNotAndEndAfterOrderByEndAsc(
+                    booking.getItem().getId(), Booking.Status.APPROVED, bookingId, booking.getStart()), booking.getEnd());
+        }
+        // Проверка статуса выше читала снимок: переход выигрывает только тот, чей UPDATE застал WAITING
+        Booking.Status status = approved ? Booking.Status.APPROVED : Booking.Status.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            throw new ConflictException("Бронирование с id=" + bookingId + " уже обработано параллельным запросом");
         }
-        booking.setStatus(approved ? Booking.Status.APPROVED : Booking.Status.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toDto(updatedBooking);
+        if (approved) {
+            availabilityCalendar.bookingApproved(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        } else {
+            availabilityCalendar.bookingRejected(booking.getItem().getId());
+        }
+        // Сущность в контексте не трогаем: ее версия уже устарела, и flush упал бы на проверке версии
+        BookingDto bookingDto = BookingMapper.toDto(booking);
+        bookingDto.setStatus(status.name());
+        return bookingDto;
+    }
+
+    private void checkNoApprovedOverlap(Optional<Booking> firstApprovedEndingAfterStart, LocalDateTime end) {
+        firstApprovedEndingAfterStart
+                .filter(approvedBooking -> approvedBooking.getStart().isBefore(end))
+                .ifPresent(approvedBooking -> {
+                    throw new ConflictException("Вещь уже забронирована на пересекающийся период, бронирование с id="
+                            + approvedBooking.getId());
+                });
     }
 
     @Override
@@ -67,42 +127,96 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new RuntimeException("Доступ запрещен");
         }
-        LocalDateTime now = LocalDateTime.now();
-        if (booking.getEnd().isBefore(now) && booking.getStatus() == Booking.Status.APPROVED) {
-            booking.setStatus(Booking.Status.REJECTED);
-            bookingRepository.save(booking);
-        }
         return BookingMapper.toDto(booking);
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByOwner(Long userId, BookingState state) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user, now, now);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerAndEndBefore(user, now);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerAndStartAfter(user, now);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerAndStatus(user, Booking.Status.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerAndStatus(user, Booking.Status.REJECTED);
-                break;
-            default:
-                bookings = bookingRepository.findAllByBookerOrderByStartDesc(user);
-                break;
+    public Slice<BookingDto> getAllBookingsByOwner(Long userId, BookingState state, PageParams page) {
+        checkUserExists(userId);
+        return findByState(BOOKER_FINDERS, userId, state, page);
+    }
+
+    @Override
+    public void exportBookingsByOwner(Long userId, Consumer<BookingDto> consumer) {
+        checkUserExists(userId);
+        try (Stream<Booking> bookings = bookingRepository.streamBookerBookings(userId)) {
+            export(bookings, consumer);
+        }
+    }
+
+    @Override
+    public void exportBookingsByItemOwner(Long ownerId, Consumer<BookingDto> consumer) {
+        checkUserExists(ownerId);
+        try (Stream<Booking> bookings = bookingRepository.streamOwnerBookings(ownerId)) {
+            export(bookings, consumer);
+        }
+    }
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!entityCache.exists(User.class, userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
+        }
+    }
+
+    // Прочитанные бронирования, вещи и пользователи периодически выбрасываются из контекста, иначе он растет с выгрузкой
+    private void export(Stream<Booking> bookings, Consumer<BookingDto> consumer) {
+        int exported = 0;
+        for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); ) {
+            consumer.accept(BookingMapper.toDto(iterator.next()));
+            if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
         }
-        return bookings.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Slice<BookingDto> getAllBookingsByItemOwner(Long ownerId, BookingState state, PageParams page) {
+        checkUserExists(ownerId);
+        return findByState(OWNER_FINDERS, ownerId, state, page);
+    }
+
+    private Slice<BookingDto> findByState(RoleFinders finders, Long userId, BookingState state, PageParams page) {
+        KeysetCursor.TimestampKey cursor = KeysetCursor.decodeTimestampKey(page.getCursor());
+        Pageable pageable = page.pageable();
+        LocalDateTime now = LocalDateTime.now();
+        Slice<Booking> bookings = switch (state) {
+            case CURRENT -> finders.current().find(bookingRepository, userId, now,
+                    cursor.timestamp(), cursor.id(), pageable);
+            case PAST -> finders.past().find(bookingRepository, userId, now,
+                    cursor.timestamp(), cursor.id(), pageable);
+            case FUTURE -> finders.future().find(bookingRepository, userId, now,
+                    cursor.timestamp(), cursor.id(), pageable);
+            case WAITING -> finders.byStatus().find(bookingRepository, userId, Booking.Status.WAITING,
+                    cursor.timestamp(), cursor.id(), pageable);
+            case REJECTED -> finders.byStatus().find(bookingRepository, userId, Booking.Status.REJECTED,
+                    cursor.timestamp(), cursor.id(), pageable);
+            case ALL -> finders.all().find(bookingRepository, userId,
+                    cursor.timestamp(), cursor.id(), pageable);
+        };
+        return bookings.map(BookingMapper::toDto);
+    }
+
+    // Выборки по состоянию для одной роли: арендатор и владелец различаются только методами репозитория
+    private record RoleFinders(TimeFinder current, TimeFinder past, TimeFinder future,
+                               StatusFinder byStatus, AllFinder all) {
+    }
+
+    @FunctionalInterface
+    private interface TimeFinder {
+        Slice<Booking> find(BookingRepository repository, Long userId, LocalDateTime now,
+                            LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+    }
+
+    @FunctionalInterface
+    private interface StatusFinder {
+        Slice<Booking> find(BookingRepository repository, Long userId, Booking.Status status,
+                            LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+    }
+
+    @FunctionalInterface
+    private interface AllFinder {
+        Slice<Booking> find(BookingRepository repository, Long userId,
+                            LocalDateTime cursorStart, Long cursorId, Pageable pageable);
     }
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.bulk;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Массовая вставка в текущей транзакции пачками по hibernate.jdbc.batch_size.
+// Id выдает последовательность, поэтому flush отправляет пачку одним JDBC batch;
+// clear после пачки не дает контексту персистентности расти на весь импорт
+@Component
+public class BulkInsert {
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public BulkInsert(EntityManager entityManager,
+                      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    // Связи сохраняемых сущностей после clear становятся detached: для вставки достаточно их id
+    public <E, D> List<D> persistAll(List<E> entities, Function<E, D> mapper) {
+        List<D> result = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            List<E> batch = entities.subList(from, Math.min(from + batchSize, entities.size()));
+            batch.forEach(entityManager::persist);
+            entityManager.flush();
+            batch.forEach(entity -> result.add(mapper.apply(entity)));
+            entityManager.clear();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+// Проверки существования и вытеснение через кэш второго уровня Hibernate
+@Component
+@RequiredArgsConstructor
+public class EntityCache {
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+
+    // Запись в кэше означает, что сущность есть, без обращения к базе.
+    // При промахе загружаем сущность по ключу: это тот же запрос, что и проверка, но следующая попадет в кэш
+    public boolean exists(Class<?> type, Long id) {
+        if (id == null) {
+            return false;
+        }
+        return entityManagerFactory.getCache().contains(type, id) || entityManager.find(type, id) != null;
+    }
+
+    // Для UPDATE одной строки мимо сущности: копия в контексте отсоединяется, чтобы не перезаписать строку при flush
+    // и не отдавать старое значение, а запись кэша вытесняется сразу и еще раз после коммита - чтение
+    // до коммита могло вернуть в кэш прежнее значение
+    public void evict(Object entity) {
+        Class<?> type = Hibernate.getClass(entity);
+        Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+        entityManager.detach(entity);
+        entityManagerFactory.getCache().evict(type, id);
+        AfterCommit.run(() -> entityManagerFactory.getCache().evict(type, id));
+    }
+
+    // Для изменений, которые база делает сама (ON DELETE CASCADE / SET NULL) и Hibernate не видит
+    public void evict(Class<?>... types) {
+        for (Class<?> type : types) {
+            entityManagerFactory.getCache().evict(type);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.ServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Чтение User, Item и ItemRequest по id с запоминанием на время HTTP-запроса.
+// Один запрос часто ищет одну и ту же сущность несколько раз (ETag, затем тело ответа; проверка, затем загрузка):
+// повторы отдаются из памяти запроса, а промахи пачки догружаются одним IN-запросом.
+// Вне HTTP-запроса (планировщик, тесты сервисов) запоминания нет, чтение идет напрямую.
+// Как и findById репозитория, без внешней транзакции чтение открывает свою
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EntityLoader {
+    private static final String ATTRIBUTE = EntityLoader.class.getName();
+
+    private final EntityManager entityManager;
+
+    public <T> Optional<T> find(Class<T> type, Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findAll(type, List.of(id)).get(id));
+    }
+
+    // Возвращает только найденные сущности; отсутствие id в ответе означает, что такой строки нет
+    public <T> Map<Long, T> findAll(Class<T> type, Collection<Long> ids) {
+        RequestLoads loads = currentRequest();
+        Map<Long, Optional<Object>> memo = loads == null ? new HashMap<>() : loads.memo(type);
+        Map<Long, T> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Optional<Object> known = memo.get(id);
+            // После clear() (пакетная вставка) запомненная сущность отсоединена - такую перечитываем
+            if (known != null && (known.isEmpty() || entityManager.contains(known.get()))) {
+                known.ifPresent(entity -> result.put(id, type.cast(entity)));
+                loads.avoided++;
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // multiLoad сначала смотрит в контекст сохраняемости и кэш второго уровня, остальное - одним IN
+            List<T> loaded = entityManager.unwrap(Session.class).byMultipleIds(type)
+                    .enableSessionCheck(true)
+                    .with(CacheMode.NORMAL)
+                    .multiLoad(missing);
+            for (int i = 0; i < missing.size(); i++) {
+                T entity = loaded.get(i);
+                memo.put(missing.get(i), Optional.ofNullable(entity));
+                if (entity != null) {
+                    result.put(missing.get(i), entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Сколько чтений за запрос обошлось без обращения к Hibernate; публикуется в QueryMetrics
+    public static int avoidedLoads(ServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof RequestLoads loads ? loads.avoided : 0;
+    }
+
+    private static RequestLoads currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        RequestLoads loads = (RequestLoads) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loads == null) {
+            loads = new RequestLoads();
+            attributes.setAttribute(ATTRIBUTE, loads, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loads;
+    }
+
+    private static class RequestLoads {
+        private final Map<Class<?>, Map<Long, Optional<Object>>> entities = new HashMap<>();
+        private int avoided;
+
+        Map<Long, Optional<Object>> memo(Class<?> type) {
+            return entities.computeIfAbsent(type, key -> new HashMap<>());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+// Доля попаданий по каждому региону; счетчики попаданий и промахов публикует hibernate-micrometer
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .tag("region", region)
+                    .description("Доля попаданий в кэш второго уровня")
+                    .register(registry);
+        }
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        long hits = regionStatistics.getHitCount();
+        long requests = hits + regionStatistics.getMissCount();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.comments.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Строка окна последних комментариев вещи (V11); пишется и обрезается только через LatestCommentRepository
+@Data
+@Entity
+@Table(name = "item_latest_comments")
+public class LatestComment {
+    @Id
+    @Column(name = "comment_id")
+    private Long commentId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
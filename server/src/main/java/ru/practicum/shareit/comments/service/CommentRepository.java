@@ -1,10 +1,29 @@
 package ru.practicum.shareit.comments.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.comments.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
-}
\ No newline at end of file
+    // Окно последних комментариев каждой вещи (LatestComment), новые первыми: чтение не зависит от длины истории
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.id IN (" +
+            "SELECT w.commentId FROM LatestComment w WHERE w.itemId IN :itemIds) " +
+            "ORDER BY c.item.id, c.created DESC, c.id DESC")
+    List<Comment> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    // Вся история вещи, новые первыми; keyset-продолжение по (created, id)
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    Slice<Comment> findItemComments(@Param("itemId") Long itemId,
+                                    @Param("cursorCreated") LocalDateTime cursorCreated,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.comments.service;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.comments.model.LatestComment;
+
+import java.time.LocalDateTime;
+
+// Окно поддерживается в addComment под блокировкой строки вещи, поэтому вставка и обрезка не гоняются друг с другом.
+// Пространство запросов - только своя таблица: native-запросы не сбрасывают кэш второго уровня остальных сущностей
+public interface LatestCommentRepository extends JpaRepository<LatestComment, Long> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "item_latest_comments"))
+    @Query(value = "INSERT INTO item_latest_comments (comment_id, item_id, created) " +
+            "VALUES (:commentId, :itemId, :created)", nativeQuery = true)
+    void add(@Param("commentId") Long commentId, @Param("itemId") Long itemId,
+             @Param("created") LocalDateTime created);
+
+    // Все, что не вошло в limit новейших; сортировка касается не больше limit + 1 строк вещи
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "item_latest_comments"))
+    @Query(value = "DELETE FROM item_latest_comments WHERE item_id = :itemId AND comment_id NOT IN (" +
+            "SELECT w.comment_id FROM item_latest_comments w WHERE w.item_id = :itemId " +
+            "ORDER BY w.created DESC, w.comment_id DESC LIMIT :limit)", nativeQuery = true)
+    int trim(@Param("itemId") Long itemId, @Param("limit") int limit);
+}
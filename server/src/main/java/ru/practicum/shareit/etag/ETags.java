@@ -0,0 +1,20 @@
+package ru.practicum.shareit.etag;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// ETag ответа строится из версий сущностей, а не из сериализованного тела: проверка If-None-Match
+// не требует ни маппинга, ни сериализации. Тег слабый - совпадение означает равные по смыслу ответы
+@UtilityClass
+public class ETags {
+    public String weak(Object... parts) {
+        String key = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.exceptionHandler;
 
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 
@@ -13,6 +17,8 @@ import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    // Exclusion constraint PostgreSQL из V4: две подтвержденные брони одной вещи не пересекаются
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "bookings_approved_no_overlap";
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleNotFoundException(IllegalArgumentException e) {
@@ -42,4 +48,45 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflictException(ConflictException e) {
+        Map<String, String> responseBody = new HashMap<>();
+        responseBody.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseBody);
+    }
+
+    // Сущность изменили параллельно: версия в базе уже не та, что была прочитана
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        Map<String, String> responseBody = new HashMap<>();
+        responseBody.put("error", "Данные были изменены параллельным запросом, повторите операцию");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseBody);
+    }
+
+    // Конфликтом считается только пересечение подтвержденных броней; остальные нарушения (NOT NULL, внешние
+    // ключи) - ошибки сервера, а не клиента
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (!violates(e, BOOKING_OVERLAP_CONSTRAINT)) {
+            return handleAllExceptions(e);
+        }
+        Map<String, String> responseBody = new HashMap<>();
+        responseBody.put("error", "Вещь уже забронирована на пересекающийся период");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseBody);
+    }
+
+    // Имя ограничения Hibernate достает не для всех СУБД и кодов ошибок, поэтому смотрим и в текст ошибки драйвера
+    private static boolean violates(Throwable e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && constraint.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
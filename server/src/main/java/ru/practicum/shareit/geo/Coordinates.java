@@ -0,0 +1,20 @@
+package ru.practicum.shareit.geo;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exception.ValidationException;
+
+// Координаты вещей и пользователей в градусах WGS84; необязательны, но задаются только парой
+@UtilityClass
+public class Coordinates {
+    public void validate(Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new ValidationException("Широта и долгота задаются вместе");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90)) {
+            throw new ValidationException("Широта должна быть от -90 до 90: " + latitude);
+        }
+        if (longitude != null && (longitude < -180 || longitude > 180)) {
+            throw new ValidationException("Долгота должна быть от -180 до 180: " + longitude);
+        }
+    }
+}
@@ -2,12 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +32,11 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> addItems(@RequestHeader(USER_ID_HEADER) Long userId, @RequestBody List<ItemDto> itemDtos) {
+        return itemService.addItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
                               @PathVariable Long itemId,
@@ -30,19 +44,50 @@ public class ItemController {
         return itemService.updateItem(userId, itemId, itemDto);
     }
 
+    // checkNotModified получает тег до сборки карточки: при совпавшем If-None-Match ответ 304 без маппинга,
+    // чтения комментариев и сериализации, а для 200 карточка собирается один раз по уже загруженным сущностям
     @GetMapping("/{itemId}")
-    public ItemWithBookingsDto getItemById(@PathVariable Long itemId) {
-        return itemService.getItemById(itemId);
+    public ResponseEntity<ItemWithBookingsDto> getItemById(@PathVariable Long itemId, WebRequest request) {
+        ItemService.ItemCard card = itemService.getItemCard(itemId, request::checkNotModified);
+        if (card.item() == null) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(card.etag()).body(card.item());
     }
 
     @GetMapping
-    public List<ItemDto> getAllItemsByOwner(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemService.getAllItemsByOwner(userId);
+    public ResponseEntity<List<ItemWithBookingsDto>> getAllItemsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                        @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                                        @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                                        @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(itemService.getAllItemsByOwner(userId, PageParams.of(from, size, cursor)),
+                item -> KeysetCursor.encode(item.getId()));
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text);
+    public List<ItemDto> searchItems(@RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+                                     @RequestParam(defaultValue = "") String text,
+                                     ItemSearchFilter filter,
+                                     @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                     @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size) {
+        return itemService.searchItems(userId, text, filter, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                        @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                        @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(itemService.getComments(itemId, PageParams.of(from, size, cursor)),
+                comment -> KeysetCursor.encode(comment.getCreated(), comment.getId()));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
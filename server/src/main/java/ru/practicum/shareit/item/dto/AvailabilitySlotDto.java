@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String status;
+}
@@ -9,4 +9,6 @@ public class ItemDto {
     private String description;
     private Boolean available;
     private Long requestId;  // Только ID запроса
+    private Double latitude;
+    private Double longitude;
 }
\ No newline at end of file
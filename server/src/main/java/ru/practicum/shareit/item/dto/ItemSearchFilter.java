@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Необязательные условия поиска вещей: свободный период [start, end) и точка (lat, lon) с радиусом в км
+// и/или числом ближайших. Без lat/lon центром служат координаты пользователя из X-Sharer-User-Id
+@Data
+public class ItemSearchFilter {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime start;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime end;
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private Integer nearest;
+
+    public boolean isNearby() {
+        return radius != null || nearest != null;
+    }
+}
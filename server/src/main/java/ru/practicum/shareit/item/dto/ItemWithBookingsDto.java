@@ -16,5 +16,6 @@ public class ItemWithBookingsDto {
     private ItemRequestDto request;
     private BookingDto lastBooking;
     private BookingDto nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 }
\ No newline at end of file
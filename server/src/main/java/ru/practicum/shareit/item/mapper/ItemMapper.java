@@ -20,6 +20,8 @@ public class ItemMapper {
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
         itemDto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
+        itemDto.setLatitude(item.getLatitude());
+        itemDto.setLongitude(item.getLongitude());
         return itemDto;
     }
 
@@ -42,6 +44,7 @@ public class ItemMapper {
 
         itemWithBookingsDto.setLastBooking(lastBooking);
         itemWithBookingsDto.setNextBooking(nextBooking);
+        itemWithBookingsDto.setCommentCount(item.getCommentCount());
         itemWithBookingsDto.setComments(comments); // Добавляем комментарии
 
         return itemWithBookingsDto;
@@ -53,6 +56,8 @@ public class ItemMapper {
         item.setName(itemDto.getName());
         item.setDescription(itemDto.getDescription());
         item.setAvailable(itemDto.getAvailable());
+        item.setLatitude(itemDto.getLatitude());
+        item.setLongitude(itemDto.getLongitude());
         return item;
     }
 }
\ No newline at end of file
@@ -2,15 +2,23 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.item.service.ItemSearchIndexListener;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 @Data
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+@EntityListeners(ItemSearchIndexListener.class)
 public class Item {
+    // Последовательность с шагом 50 (V7): id выдаются без обращения к базе на каждую вставку
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -22,11 +30,24 @@ public class Item {
     @Column(name = "is_available", nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    // Координаты (V10) необязательны; по ним вещь попадает в ItemGeoIndex
+    private Double latitude;
+
+    private Double longitude;
+
+    // Счетчик комментариев (V8), увеличивается в addComment отдельным UPDATE, не меняя version
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
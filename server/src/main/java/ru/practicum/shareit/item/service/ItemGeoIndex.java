@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Сеточный пространственный индекс вещей с координатами: ячейки CELL_DEGREES x CELL_DEGREES градусов.
+// Поиск в радиусе читает только ячейки, задетые описанным квадратом, и уточняет расстояние по гаверсинусу.
+// Обновляется вместе с ItemSearchIndex из ItemSearchIndexListener после коммита
+@Component
+public class ItemGeoIndex {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    // Половина экватора: любая точка Земли ближе
+    public static final double MAX_RADIUS_KM = Math.PI * EARTH_RADIUS_KM;
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    // Начальный радиус поиска ближайших; удваивается, пока не наберется k вещей
+    private static final double NEAREST_START_RADIUS_KM = 5;
+
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+    public void index(Long id, Double latitude, Double longitude, Boolean available) {
+        if (id == null) {
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            remove(id);
+            return;
+        }
+        Point point = new Point(latitude, longitude, cellOf(latitude, longitude), Boolean.TRUE.equals(available));
+        Point previous = points.put(id, point);
+        if (previous != null && previous.cell != point.cell) {
+            removeFromCell(previous.cell, id);
+        }
+        // Добавление под блокировкой ячейки: иначе removeFromCell может выбросить опустевшее множество между
+        // его получением и вставкой
+        cells.compute(point.cell, (key, ids) -> {
+            Set<Long> cellIds = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            cellIds.add(id);
+            return cellIds;
+        });
+    }
+
+    public void remove(Long id) {
+        Point previous = id == null ? null : points.remove(id);
+        if (previous != null) {
+            removeFromCell(previous.cell, id);
+        }
+    }
+
+    public void clear() {
+        points.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    // Расстояние до вещи в км или null, если у вещи нет координат или она недоступна
+    public Double distanceKm(Long id, double latitude, double longitude) {
+        Point point = points.get(id);
+        if (point == null || !point.available) {
+            return null;
+        }
+        return distanceKm(latitude, longitude, point.latitude, point.longitude);
+    }
+
+    // Доступные вещи не дальше radiusKm, от ближних к дальним
+    public List<Neighbor> within(double latitude, double longitude, double radiusKm) {
+        List<Neighbor> result = new ArrayList<>();
+        for (Long cell : cellsAround(latitude, longitude, radiusKm)) {
+            Set<Long> ids = cells.get(cell);
+            if (ids == null) {
+                continue;
+            }
+            for (Long id : ids) {
+                Double distance = distanceKm(id, latitude, longitude);
+                if (distance != null && distance <= radiusKm) {
+                    result.add(new Neighbor(id, distance));
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::distanceKm).thenComparing(Neighbor::id));
+        return result;
+    }
+
+    // k ближайших доступных вещей не дальше maxRadiusKm: радиус удваивается, пока в круг не попадет k вещей
+    public List<Neighbor> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        double radius = Math.min(NEAREST_START_RADIUS_KM, maxRadiusKm);
+        List<Neighbor> found = within(latitude, longitude, radius);
+        while (found.size() < k && radius < maxRadiusKm) {
+            radius = Math.min(radius * 2, maxRadiusKm);
+            found = within(latitude, longitude, radius);
+        }
+        return found.size() > k ? found.subList(0, k) : found;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Ячейки описанного квадрата; если их больше, чем занятых, дешевле пройти по занятым
+    private Collection<Long> cellsAround(double latitude, double longitude, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double minLat = latitude - latSpan;
+        double maxLat = latitude + latSpan;
+        int minLatCell = latCell(Math.max(-90, minLat));
+        int maxLatCell = latCell(Math.min(90, maxLat));
+
+        int minLonCell = 0;
+        int lonCellCount = LON_CELLS;
+        double widestLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        if (widestLat < 90) {
+            double lonSpan = latSpan / Math.cos(Math.toRadians(widestLat));
+            if (lonSpan < 180) {
+                minLonCell = lonCell(longitude - lonSpan);
+                lonCellCount = Math.min(LON_CELLS, lonCell(longitude + lonSpan) - minLonCell + 1);
+            }
+        }
+
+        long boxCells = (long) (maxLatCell - minLatCell + 1) * lonCellCount;
+        if (boxCells > cells.size()) {
+            List<Long> occupied = new ArrayList<>();
+            for (Long cell : cells.keySet()) {
+                int latIndex = (int) (cell >> 32);
+                int lonOffset = Math.floorMod((int) (cell & 0xffffffffL) - minLonCell, LON_CELLS);
+                if (latIndex >= minLatCell && latIndex <= maxLatCell && lonOffset < lonCellCount) {
+                    occupied.add(cell);
+                }
+            }
+            return occupied;
+        }
+        List<Long> box = new ArrayList<>((int) boxCells);
+        for (int lat = minLatCell; lat <= maxLatCell; lat++) {
+            for (int i = 0; i < lonCellCount; i++) {
+                box.add(cellKey(lat, Math.floorMod(minLonCell + i, LON_CELLS)));
+            }
+        }
+        return box;
+    }
+
+    private void removeFromCell(long cell, Long id) {
+        cells.computeIfPresent(cell, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey(latCell(latitude), Math.floorMod(lonCell(longitude), LON_CELLS));
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | lonIndex;
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    // Без приведения к [0, LON_CELLS): для квадрата через 180-й меридиан индекс выходит за границы и сворачивается
+    private static int lonCell(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    public record Neighbor(Long id, double distanceKm) {
+    }
+
+    private record Point(double latitude, double longitude, long cell, boolean available) {
+    }
+}
@@ -1,18 +1,83 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long ownerId);
-
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.available = true " +
-            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailableItems(@Param("text") String text);
-}
\ No newline at end of file
+    Slice<Item> findAllByOwnerIdAndIdGreaterThanOrderById(Long ownerId, Long afterId, Pageable pageable);
+
+    List<Item> findAllByIdInAndAvailableTrue(Collection<Long> ids);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Доступные вещи из списка без подтвержденных броней, пересекающих [start, end): один анти-join на пачку
+    // кандидатов по bookings(item_id, status, end_date, start_date) вместо проверки каждой вещи
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids AND i.available = true AND NOT EXISTS (" +
+            "SELECT b.id FROM Booking b WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.Booking.Status.APPROVED " +
+            "AND b.end > :start AND b.start < :end)")
+    List<Long> findIdsFreeBetween(@Param("ids") Collection<Long> ids,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    // Счетчик комментариев растет в базе, без версии вещи: комментарий не конфликтует с правкой владельца.
+    // Пустое пространство запросов не совпадает ни с одной таблицей сущностей, поэтому Hibernate не сбрасывает
+    // весь кэш второго уровня, как после native UPDATE; запись вещи вытесняет вызывающий (EntityCache.evict)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(value = "UPDATE items SET comment_count = comment_count + 1 WHERE id = :id", nativeQuery = true)
+    int incrementCommentCount(@Param("id") Long id);
+
+    // Блокировка строки вещи сериализует подтверждение пересекающихся броней одной вещи
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    // Только поля, нужные поисковому и пространственному индексам, без владельца и запроса
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.latitude AS latitude, i.longitude AS longitude " +
+            "FROM Item i " +
+            "WHERE i.id > :afterId " +
+            "ORDER BY i.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Сводка по вещам запроса для ETag: число вещей и сумма их версий меняются при любом добавлении или правке
+    @Query("SELECT COUNT(i) AS count, COALESCE(SUM(i.version), 0) AS versions FROM Item i WHERE i.request.id = :requestId")
+    RequestItemsVersion findRequestItemsVersion(@Param("requestId") Long requestId);
+
+    interface RequestItemsVersion {
+        Long getCount();
+
+        Long getVersions();
+    }
+
+    interface SearchDocument {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Boolean getAvailable();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Триграммный инвертированный индекс по name/description доступных вещей.
+// Поиск подстроки сводится к пересечению списков триграмм запроса, а не к LIKE '%text%' по всей таблице.
+// Индекс обновляется из ItemSearchIndexListener после коммита каждого insert/update/delete вещи.
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    public void index(Long id, String name, String description, Boolean available) {
+        if (id == null) {
+            return;
+        }
+        Document document = new Document(id, normalize(name), normalize(description), Boolean.TRUE.equals(available));
+        Set<String> grams = document.grams();
+        Document previous = documents.put(id, document);
+        // Триграммы старого текста снимаем, иначе списки растут с каждой правкой и поиск перебирает мертвых кандидатов
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                if (!grams.contains(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.compute(gram, (key, ids) -> {
+                Set<Long> gramIds = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                gramIds.add(id);
+                return gramIds;
+            });
+        }
+    }
+
+    public void remove(Long id) {
+        Document previous = id == null ? null : documents.remove(id);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                removePosting(gram, id);
+            }
+        }
+    }
+
+    public void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    int gramCount() {
+        return postings.size();
+    }
+
+    // Возвращает id доступных вещей, содержащих text, по убыванию релевантности
+    public List<Long> search(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates(query)) {
+            Document document = documents.get(id);
+            if (document == null || !document.available) {
+                continue;
+            }
+            int score = document.score(query);
+            if (score > 0) {
+                matches.add(new Match(id, score));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::score).reversed().thenComparing(Match::id));
+        return matches.stream()
+                .map(Match::id)
+                .toList();
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        // Идем по самому короткому списку и проверяем вхождение в остальные, без копирования больших множеств
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> result = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(Long id, String name, String description, boolean available) {
+        Set<String> grams() {
+            return ItemSearchIndex.grams(name + "\n" + description);
+        }
+
+        // Совпадение в названии весомее совпадения в описании, начало названия - весомее всего
+        int score(String query) {
+            int score = 0;
+            if (name.startsWith(query)) {
+                score += 4;
+            } else if (name.contains(query)) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+
+    private record Match(Long id, int score) {
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+// Создается Hibernate через Spring, поэтому индексы берем лениво: в срезах контекста без поиска их может не быть.
+// Колбэки JPA срабатывают до коммита, поэтому индексы правятся только после него
+public class ItemSearchIndexListener {
+    private final ObjectProvider<ItemSearchIndex> searchIndex;
+    private final ObjectProvider<ItemGeoIndex> geoIndex;
+
+    public ItemSearchIndexListener(ObjectProvider<ItemSearchIndex> searchIndex, ObjectProvider<ItemGeoIndex> geoIndex) {
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+        Double latitude = item.getLatitude();
+        Double longitude = item.getLongitude();
+        searchIndex.ifAvailable(index -> AfterCommit.run(() -> index.index(id, name, description, available)));
+        geoIndex.ifAvailable(index -> AfterCommit.run(() -> index.index(id, latitude, longitude, available)));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        Long id = item.getId();
+        searchIndex.ifAvailable(index -> AfterCommit.run(() -> index.remove(id)));
+        geoIndex.ifAvailable(index -> AfterCommit.run(() -> index.remove(id)));
+    }
+}
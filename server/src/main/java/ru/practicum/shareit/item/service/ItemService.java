@@ -1,23 +1,44 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.Nullable;
 import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ItemService {
+    // item == null: тег совпал с If-None-Match, карточка не собиралась
+    record ItemCard(@Nullable ItemWithBookingsDto item, String etag) {
+    }
+
     ItemDto addItem(Long userId, ItemDto itemDto);
 
+    List<ItemDto> addItems(Long userId, List<ItemDto> itemDtos);
+
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
     ItemWithBookingsDto getItemById(Long itemId);
 
-    List<ItemDto> getAllItemsByOwner(Long userId);
+    // Тег считается по сущностям, которые карточка загружает в любом случае, и проверяется notModified
+    // до маппинга и чтения окна комментариев; при совпадении карточка не собирается
+    ItemCard getItemCard(Long itemId, Predicate<String> notModified);
+
+    Slice<ItemWithBookingsDto> getAllItemsByOwner(Long userId, PageParams page);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, int from, int size);
+
+    List<ItemDto> searchItems(Long userId, String text, ItemSearchFilter filter, int from, int size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 
-    List<CommentDto> getCommentsByItemId(Long itemId);
+    Slice<CommentDto> getComments(Long itemId, PageParams page);
+
+    List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -1,51 +1,92 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.booking.service.BookingRepository;
+import ru.practicum.shareit.bulk.BulkInsert;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.comments.mapper.CommentMapper;
 import ru.practicum.shareit.comments.model.Comment;
 import ru.practicum.shareit.comments.service.CommentRepository;
+import ru.practicum.shareit.comments.service.LatestCommentRepository;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.geo.Coordinates;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final CommentRepository commentRepository;
+    private final LatestCommentRepository latestCommentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemGeoIndex geoIndex;
+    private final BulkInsert bulkInsert;
+    private final EntityLoader entityLoader;
+    private final EntityCache entityCache;
+    private final AvailabilityCalendar availabilityCalendar;
+
+    private static final int SEARCH_INDEX_BATCH_SIZE = 1000;
+    private static final int SEARCH_WINDOW_BATCH_SIZE = 500;
+    // Размер окна последних комментариев в карточке (V11 заполнил окно тем же числом); полная история -
+    // GET /items/{id}/comments
+    private static final int COMMENT_WINDOW = 10;
 
     @Override
+    @Transactional
     public ItemDto addItem(Long userId, ItemDto itemDto) {
-        User owner = userRepository.findById(userId)
+        User owner = entityLoader.find(User.class, userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Coordinates.validate(itemDto.getLatitude(), itemDto.getLongitude());
 
         Item item = ItemMapper.toEntity(itemDto);
         item.setOwner(owner);
 
         if (itemDto.getRequestId() != null) {
-            ItemRequest request = itemRequestRepository.findById(itemDto.getRequestId())
+            ItemRequest request = entityLoader.find(ItemRequest.class, itemDto.getRequestId())
                     .orElseThrow(() -> new NotFoundException("Запрос не найден"));
             item.setRequest(request);
         }
@@ -54,7 +95,39 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toDto(savedItem);
     }
 
+    // Владелец и запросы читаются по разу на весь список, вещи вставляются пачками
     @Override
+    @Transactional
+    public List<ItemDto> addItems(Long userId, List<ItemDto> itemDtos) {
+        User owner = entityLoader.find(User.class, userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+
+        itemDtos.forEach(itemDto -> Coordinates.validate(itemDto.getLatitude(), itemDto.getLongitude()));
+
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = entityLoader.findAll(ItemRequest.class, requestIds);
+        if (requests.size() != requestIds.size()) {
+            requestIds.removeAll(requests.keySet());
+            throw new NotFoundException("Запросы не найдены: " + requestIds);
+        }
+
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> {
+                    Item item = ItemMapper.toEntity(itemDto);
+                    item.setId(null);
+                    item.setOwner(owner);
+                    item.setRequest(requests.get(itemDto.getRequestId()));
+                    return item;
+                })
+                .toList();
+        return bulkInsert.persistAll(items, ItemMapper::toDto);
+    }
+
+    @Override
+    @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
         Item existingItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
@@ -72,6 +145,11 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             existingItem.setAvailable(itemDto.getAvailable());
         }
+        if (itemDto.getLatitude() != null || itemDto.getLongitude() != null) {
+            Coordinates.validate(itemDto.getLatitude(), itemDto.getLongitude());
+            existingItem.setLatitude(itemDto.getLatitude());
+            existingItem.setLongitude(itemDto.getLongitude());
+        }
 
         if (itemDto.getRequestId() != null) {
             ItemRequest request = itemRequestRepository.findById(itemDto.getRequestId())
@@ -87,54 +165,249 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemWithBookingsDto getItemById(Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
+        return getItemCard(itemId, etag -> false).item();
+    }
 
-        List<Booking> bookings = bookingRepository.findAllByItemIdOrderByStartAsc(itemId);
+    @Override
+    public ItemCard getItemCard(Long itemId, Predicate<String> notModified) {
+        Item item = entityLoader.find(Item.class, itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
+        List<Long> itemIds = List.of(itemId);
         LocalDateTime now = LocalDateTime.now();
-
-        BookingDto lastBooking = null;
-        BookingDto nextBooking = null;
-
-        for (Booking booking : bookings) {
-            if (booking.getEnd().isBefore(now) && booking.getStatus() == Booking.Status.APPROVED) {
-                lastBooking = BookingMapper.toDto(booking);
-            } else if (booking.getStart().isAfter(now)) {
-                nextBooking = BookingMapper.toDto(booking);
-                break;
-            }
+        Booking lastBooking = findLastBookings(itemIds, now).get(itemId);
+        Booking nextBooking = findNextBookings(itemIds, now).get(itemId);
+        String etag = cardEtag(item, lastBooking, nextBooking);
+        if (notModified.test(etag)) {
+            return new ItemCard(null, etag);
         }
+        ItemWithBookingsDto card = ItemMapper.toItemWithBookingsDto(item, toBookingDto(lastBooking),
+                toBookingDto(nextBooking), findLatestComments(itemIds).getOrDefault(itemId, List.of()));
+        return new ItemCard(card, etag);
+    }
 
-        List<CommentDto> comments = getCommentsByItemId(itemId);
+    // Карточка меняется вместе с вещью, ее запросом (автор, вещи запроса), последним/следующим бронированием
+    // с арендатором и числом комментариев. Окно комментариев в тег не входит: его пришлось бы читать до проверки.
+    // Поэтому после переименования автора комментария слабый тег не меняется, пока у вещи не сменится
+    // что-то еще - имя автора в карточке может устареть до следующего комментария, бронирования или правки
+    private static String cardEtag(Item item, Booking lastBooking, Booking nextBooking) {
+        ItemRequest request = item.getRequest();
+        List<Item> requestItems = request == null || request.getItems() == null ? List.of() : request.getItems();
+        User requestor = request == null ? null : request.getRequestor();
+        return ETags.weak("item", item.getId(), item.getVersion(), item.getCommentCount(),
+                bookingTag(lastBooking), bookingTag(nextBooking),
+                request == null ? null : request.getId(), request == null ? null : request.getVersion(),
+                requestor == null ? null : requestor.getVersion(),
+                requestItems.size(), requestItems.stream().mapToLong(Item::getVersion).sum());
+    }
 
-        return ItemMapper.toItemWithBookingsDto(item, lastBooking, nextBooking, comments);
+    // Арендатор загружается вместе с бронированием (JOIN FETCH)
+    private static String bookingTag(Booking booking) {
+        return booking == null ? null
+                : booking.getId() + ":" + booking.getVersion() + ":" + booking.getBooker().getVersion();
     }
 
     @Override
-    public List<ItemDto> getAllItemsByOwner(Long userId) {
-        List<Item> items = itemRepository.findAllByOwnerId(userId);
+    public Slice<ItemWithBookingsDto> getAllItemsByOwner(Long userId, PageParams page) {
+        Slice<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(userId,
+                KeysetCursor.decodeId(page.getCursor()), page.pageable());
+        return new SliceImpl<>(toItemsWithBookings(items.getContent()), items.getPageable(), items.hasNext());
+    }
+
+    // Последнее/следующее бронирование и окно последних комментариев для всех вещей страницы - по одному запросу на каждое
+    private List<ItemWithBookingsDto> toItemsWithBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Booking> lastBookings = findLastBookings(itemIds, now);
+        Map<Long, Booking> nextBookings = findNextBookings(itemIds, now);
+        Map<Long, List<CommentDto>> comments = findLatestComments(itemIds);
+
         return items.stream()
-                .map(ItemMapper::toDto)
+                .map(item -> ItemMapper.toItemWithBookingsDto(item,
+                        toBookingDto(lastBookings.get(item.getId())),
+                        toBookingDto(nextBookings.get(item.getId())),
+                        comments.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    private Map<Long, List<CommentDto>> findLatestComments(List<Long> itemIds) {
+        return commentRepository.findLatestByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+    }
+
+    // При совпадении start выбираем бронирование детерминированно по id
+    private Map<Long, Booking> findLastBookings(List<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findLastBookings(itemIds, Booking.Status.APPROVED, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity(),
+                        (a, b) -> a.getId() > b.getId() ? a : b));
+    }
+
+    private Map<Long, Booking> findNextBookings(List<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findNextBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity(),
+                        (a, b) -> a.getId() < b.getId() ? a : b));
+    }
+
+    private static BookingDto toBookingDto(Booking booking) {
+        return booking == null ? null : BookingMapper.toDto(booking);
+    }
+
     @Override
-    public List<ItemDto> searchItems(String text) {
-        if (text == null || text.isBlank()) {
+    public List<ItemDto> searchItems(String text, int from, int size) {
+        return searchItems(null, text, new ItemSearchFilter(), from, size);
+    }
+
+    // Без точки порядок - по релевантности текста, с точкой - по расстоянию; пустой текст допустим только рядом с точкой
+    @Override
+    public List<ItemDto> searchItems(Long userId, String text, ItemSearchFilter filter, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
+        if ((filter.getStart() == null) != (filter.getEnd() == null)) {
+            throw new ValidationException("Период поиска задается началом и концом вместе");
+        }
+        if (filter.getStart() != null && !filter.getStart().isBefore(filter.getEnd())) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+        if (filter.getRadius() != null && filter.getRadius() <= 0) {
+            throw new ValidationException("Радиус поиска должен быть положительным: " + filter.getRadius());
+        }
+        if (filter.getNearest() != null && filter.getNearest() <= 0) {
+            throw new ValidationException("Число ближайших вещей должно быть положительным: " + filter.getNearest());
+        }
+        boolean blank = text == null || text.isBlank();
+        if (blank && !filter.isNearby()) {
             return List.of();
         }
 
-        List<Item> items = itemRepository.searchAvailableItems(text.toLowerCase());
-        return items.stream()
+        int limit = filter.getNearest() == null ? from + size : Math.min(filter.getNearest(), from + size);
+        List<Long> rankedIds;
+        if (!filter.isNearby()) {
+            rankedIds = onlyFree(searchIndex.search(text), filter, limit);
+        } else {
+            double[] center = searchCenter(userId, filter);
+            double radius = filter.getRadius() != null ? filter.getRadius() : ItemGeoIndex.MAX_RADIUS_KM;
+            rankedIds = blank
+                    ? nearbyIds(center, radius, filter, limit)
+                    : onlyFree(byDistance(searchIndex.search(text), center, radius), filter, limit);
+        }
+        if (filter.getNearest() != null && rankedIds.size() > filter.getNearest()) {
+            rankedIds = rankedIds.subList(0, filter.getNearest());
+        }
+        if (from >= rankedIds.size()) {
+            return List.of();
+        }
+        List<Long> pageIds = rankedIds.subList(from, Math.min(rankedIds.size(), from + size));
+
+        // Индекс дает порядок по релевантности, БД - актуальные данные страницы
+        Map<Long, Item> items = itemRepository.findAllByIdInAndAvailableTrue(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    private double[] searchCenter(Long userId, ItemSearchFilter filter) {
+        if (filter.getLat() != null || filter.getLon() != null) {
+            Coordinates.validate(filter.getLat(), filter.getLon());
+            return new double[]{filter.getLat(), filter.getLon()};
+        }
+        if (userId != null) {
+            User user = entityLoader.find(User.class, userId)
+                    .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+            if (user.getLatitude() != null) {
+                return new double[]{user.getLatitude(), user.getLongitude()};
+            }
+        }
+        throw new ValidationException("Для поиска рядом нужны lat и lon или координаты пользователя");
+    }
+
+    // Без текста кандидаты дает сетка ItemGeoIndex. Ближайших берем с запасом, пока после отсева
+    // занятых в периоде не наберется limit или вещи в радиусе не кончатся
+    private List<Long> nearbyIds(double[] center, double radius, ItemSearchFilter filter, int limit) {
+        if (filter.getNearest() == null) {
+            return onlyFree(ids(geoIndex.within(center[0], center[1], radius)), filter, limit);
+        }
+        for (int k = limit; ; k *= 4) {
+            List<ItemGeoIndex.Neighbor> nearest = geoIndex.nearest(center[0], center[1], k, radius);
+            List<Long> free = onlyFree(ids(nearest), filter, limit);
+            if (free.size() >= limit || nearest.size() < k) {
+                return free;
+            }
+        }
+    }
+
+    // Совпадения текста с координатами в радиусе, от ближних к дальним
+    private List<Long> byDistance(List<Long> rankedIds, double[] center, double radius) {
+        List<ItemGeoIndex.Neighbor> neighbors = new ArrayList<>();
+        for (Long id : rankedIds) {
+            Double distance = geoIndex.distanceKm(id, center[0], center[1]);
+            if (distance != null && distance <= radius) {
+                neighbors.add(new ItemGeoIndex.Neighbor(id, distance));
+            }
+        }
+        neighbors.sort(Comparator.comparingDouble(ItemGeoIndex.Neighbor::distanceKm));
+        return ids(neighbors);
+    }
+
+    private static List<Long> ids(List<ItemGeoIndex.Neighbor> neighbors) {
+        return neighbors.stream()
+                .map(ItemGeoIndex.Neighbor::id)
+                .toList();
+    }
+
+    private List<Long> onlyFree(List<Long> rankedIds, ItemSearchFilter filter, int limit) {
+        return filter.getStart() == null ? rankedIds : freeIds(rankedIds, filter.getStart(), filter.getEnd(), limit);
+    }
+
+    // Кандидаты идут по релевантности пачками; каждую пачку фильтрует один анти-join, пока не набрано limit свободных
+    private List<Long> freeIds(List<Long> rankedIds, LocalDateTime start, LocalDateTime end, int limit) {
+        List<Long> free = new ArrayList<>();
+        for (int i = 0; i < rankedIds.size() && free.size() < limit; i += SEARCH_WINDOW_BATCH_SIZE) {
+            List<Long> batch = rankedIds.subList(i, Math.min(rankedIds.size(), i + SEARCH_WINDOW_BATCH_SIZE));
+            Set<Long> freeInBatch = new HashSet<>(itemRepository.findIdsFreeBetween(batch, start, end));
+            batch.stream()
+                    .filter(freeInBatch::contains)
+                    .forEach(free::add);
+        }
+        return free;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        searchIndex.clear();
+        geoIndex.clear();
+        long lastId = 0L;
+        List<ItemRepository.SearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(lastId, PageRequest.of(0, SEARCH_INDEX_BATCH_SIZE));
+            for (ItemRepository.SearchDocument document : batch) {
+                searchIndex.index(document.getId(), document.getName(), document.getDescription(),
+                        document.getAvailable());
+                geoIndex.index(document.getId(), document.getLatitude(), document.getLongitude(),
+                        document.getAvailable());
+                lastId = document.getId();
+            }
+        } while (batch.size() == SEARCH_INDEX_BATCH_SIZE);
+        log.info("Поисковый индекс вещей построен: {} документов, {} с координатами", searchIndex.size(),
+                geoIndex.size());
+    }
+
     @Override
+    @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
-        User author = userRepository.findById(userId)
+        User author = entityLoader.find(User.class, userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        Item item = itemRepository.findById(itemId)
+        // Блокировка строки вещи: параллельные комментарии одной вещи идут по очереди
+        Item item = itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена"));
         boolean hasBooked = bookingRepository.existsByBookerIdAndItemIdAndEndBefore(userId, itemId, LocalDateTime.now());
         if (!hasBooked) {
@@ -145,14 +418,30 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
         comment.setCreated(LocalDateTime.now());
         Comment savedComment = commentRepository.save(comment);
+        // Не через сущность: иначе растет версия вещи, а с ней конфликт с правкой владельца, вытеснение из кэша
+        // и переиндексация в ItemSearchIndexListener на каждый комментарий
+        itemRepository.incrementCommentCount(itemId);
+        entityCache.evict(item);
+        latestCommentRepository.add(savedComment.getId(), itemId, savedComment.getCreated());
+        latestCommentRepository.trim(itemId, COMMENT_WINDOW);
         return CommentMapper.toDto(savedComment);
     }
 
     @Override
-    public List<CommentDto> getCommentsByItemId(Long itemId) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
-        return comments.stream()
-                .map(CommentMapper::toDto)
-                .collect(Collectors.toList());
+    public Slice<CommentDto> getComments(Long itemId, PageParams page) {
+        if (entityLoader.find(Item.class, itemId).isEmpty()) {
+            throw new NotFoundException("Вещь с id=" + itemId + " не найдена");
+        }
+        KeysetCursor.TimestampKey cursor = KeysetCursor.decodeTimestampKey(page.getCursor());
+        return commentRepository.findItemComments(itemId, cursor.timestamp(), cursor.id(), page.pageable())
+                .map(CommentMapper::toDto);
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (entityLoader.find(Item.class, itemId).isEmpty()) {
+            throw new NotFoundException("Вещь с id=" + itemId + " не найдена");
+        }
+        return availabilityCalendar.getSlots(itemId, from, to);
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.cache.EntityLoader;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Счетчики JDBC: каждое выполнение (пачка batch - одно выполнение) по типу оператора
+// и итог по HTTP-запросу - сколько операторов и сколько времени в базе потратил эндпоинт,
+// а также сколько повторных чтений сущностей сэкономил EntityLoader
+public class QueryMetrics implements QueryExecutionListener, AsyncHandlerInterceptor {
+    private static final String START_NANOS = "startNanos";
+
+    private final MeterRegistry registry;
+    private final Map<QueryType, Timer> statements = new EnumMap<>(QueryType.class);
+    private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+
+    public QueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (QueryType type : QueryType.values()) {
+            statements.put(type, Timer.builder("jdbc.statements")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .description("Выполнения JDBC-операторов")
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+        QueryType type = queryInfoList.size() == 1 ? QueryUtils.getQueryType(queryInfoList.get(0).getQuery())
+                : QueryType.OTHER;
+        statements.get(type).record(elapsed, TimeUnit.NANOSECONDS);
+        RequestQueries request = currentRequest.get();
+        if (request != null) {
+            request.count++;
+            request.nanos += elapsed;
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        currentRequest.set(new RequestQueries());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestQueries queries = currentRequest.get();
+        currentRequest.remove();
+        if (queries == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("jdbc.request.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .description("JDBC-операторов на HTTP-запрос")
+                .register(registry)
+                .record(queries.count);
+        Timer.builder("jdbc.request.time")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .description("Время в JDBC на HTTP-запрос")
+                .register(registry)
+                .record(queries.nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("entity.loader.avoided")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .description("Повторных чтений сущностей на HTTP-запрос, отданных из памяти запроса")
+                .register(registry)
+                .record(EntityLoader.avoidedLoads(request));
+    }
+
+    // Тело асинхронного ответа (выгрузка) пишется в другом потоке: его операторы попадают только в jdbc.statements
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        currentRequest.remove();
+    }
+
+    private static class RequestQueries {
+        private int count;
+        private long nanos;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+// Бины объявлены здесь, а не через @Component: срез @WebMvcTest подхватил бы перехватчик без MeterRegistry
+@Configuration
+public class QueryMetricsConfig {
+
+    @Bean
+    public QueryMetrics queryMetrics(MeterRegistry registry) {
+        return new QueryMetrics(registry);
+    }
+
+    // Прокси поверх пула: метрики Hikari по-прежнему видят HikariDataSource через unwrap
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(queryMetrics.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer queryMetricsInterceptor(QueryMetrics queryMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(queryMetrics);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Кодирование ключа последней строки страницы в непрозрачную строку для заголовка X-Next-Cursor.
+// Ключи: (момент, id) для списков по убыванию даты и просто id для списков по возрастанию id.
+@UtilityClass
+public class KeysetCursor {
+    // Значения "до начала" для первой страницы: больше любых реальных ключей
+    public static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    public static final long MAX_ID = Long.MAX_VALUE;
+
+    private static final String SEPARATOR = "|";
+
+    public String encode(LocalDateTime timestamp, Long id) {
+        return encodeRaw(timestamp + SEPARATOR + id);
+    }
+
+    public String encode(Long id) {
+        return encodeRaw(String.valueOf(id));
+    }
+
+    public TimestampKey decodeTimestampKey(String cursor) {
+        if (cursor == null) {
+            return new TimestampKey(MAX_TIMESTAMP, MAX_ID);
+        }
+        String raw = decodeRaw(cursor);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw invalid(cursor);
+        }
+        try {
+            return new TimestampKey(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    public long decodeId(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decodeRaw(cursor));
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeRaw(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (java.lang.IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private ValidationException invalid(String cursor) {
+        return new ValidationException("Некорректный курсор: " + cursor);
+    }
+
+    public record TimestampKey(LocalDateTime timestamp, Long id) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Страница с произвольным смещением: PageRequest умеет только смещения, кратные размеру страницы,
+// и from=5&size=10 превращал бы в строки 0-9
+record OffsetPageable(long offset, int size) implements Pageable {
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageable(offset + size, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageable(Math.max(0, offset - size), size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageable(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageable((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ValidationException;
+
+// Параметры страницы списка: смещение from/size или непрозрачный курсор, выданный предыдущей страницей.
+// Если курсор задан, from игнорируется и выборка продолжается строго после ключа курсора.
+@Getter
+public class PageParams {
+    public static final String DEFAULT_FROM = "0";
+    public static final String DEFAULT_SIZE = "10";
+
+    private final int from;
+    private final int size;
+    private final String cursor;
+
+    private PageParams(int from, int size, String cursor) {
+        this.from = from;
+        this.size = size;
+        this.cursor = cursor;
+    }
+
+    public static PageParams of(int from, int size, String cursor) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
+        return new PageParams(from, size, cursor == null || cursor.isBlank() ? null : cursor);
+    }
+
+    public static PageParams of(int from, int size) {
+        return of(from, size, null);
+    }
+
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    public Pageable pageable() {
+        return new OffsetPageable(hasCursor() ? 0 : from, size);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@UtilityClass
+public class Pages {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Тело ответа остается массивом, курсор следующей страницы уходит в заголовок
+    public <T> ResponseEntity<List<T>> toResponse(Slice<T> slice, Function<T, String> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.hasNext() && slice.hasContent()) {
+            List<T> content = slice.getContent();
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)));
+        }
+        return response.body(slice.getContent());
+    }
+}
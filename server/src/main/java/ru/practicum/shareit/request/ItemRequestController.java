@@ -1,7 +1,12 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -20,19 +25,37 @@ public class ItemRequestController {
         return itemRequestService.createRequest(userId, itemRequestDto);
     }
 
+    // При совпавшем If-None-Match checkNotModified выставляет 304, тело не строится
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                         @PathVariable Long requestId) {
-        return itemRequestService.getRequestById(userId, requestId);
+    public ResponseEntity<ItemRequestDto> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                         @PathVariable Long requestId,
+                                                         WebRequest request) {
+        String etag = itemRequestService.getRequestEtag(userId, requestId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(itemRequestService.getRequestById(userId, requestId));
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllRequestsByUser(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestService.getAllRequestsByUser(userId);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequestsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                     @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                                     @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                                     @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(itemRequestService.getAllRequestsByUser(userId, PageParams.of(from, size, cursor)),
+                ItemRequestController::cursorOf);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestService.getAllRequests(userId);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                               @RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                               @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                               @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(itemRequestService.getAllRequests(userId, PageParams.of(from, size, cursor)),
+                ItemRequestController::cursorOf);
+    }
+
+    private static String cursorOf(ItemRequestDto request) {
+        return KeysetCursor.encode(request.getCreated(), request.getId());
     }
 }
\ No newline at end of file
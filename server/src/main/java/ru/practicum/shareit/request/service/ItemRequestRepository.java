@@ -1,17 +1,28 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    // Keyset-продолжение по (created, id) в порядке убывания
+    String AFTER_CURSOR = " AND (ir.created < :cursorCreated OR (ir.created = :cursorCreated AND ir.id < :cursorId))" +
+            " ORDER BY ir.created DESC, ir.id DESC";
 
-    List<ItemRequest> findAllByRequestorOrderByCreatedDesc(User requestor);
+    @Query("SELECT ir FROM ItemRequest ir JOIN FETCH ir.requestor WHERE ir.requestor.id = :userId" + AFTER_CURSOR)
+    Slice<ItemRequest> findRequestorRequests(@Param("userId") Long userId,
+                                             @Param("cursorCreated") LocalDateTime cursorCreated,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
 
-    @Query("SELECT ir FROM ItemRequest ir WHERE ir.requestor.id <> :userId ORDER BY ir.created DESC")
-    List<ItemRequest> findAllByRequestorNotOrderByCreatedDesc(@Param("userId") Long userId);
-}
\ No newline at end of file
+    @Query("SELECT ir FROM ItemRequest ir JOIN FETCH ir.requestor WHERE ir.requestor.id <> :userId" + AFTER_CURSOR)
+    Slice<ItemRequest> findOtherUsersRequests(@Param("userId") Long userId,
+                                              @Param("cursorCreated") LocalDateTime cursorCreated,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+}
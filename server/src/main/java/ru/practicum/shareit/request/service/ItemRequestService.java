@@ -1,15 +1,17 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.List;
-
 public interface ItemRequestService {
     ItemRequestDto createRequest(Long userId, ItemRequestDto itemRequestDto); // Создание запроса
 
     ItemRequestDto getRequestById(Long userId, Long requestId); // Получение запроса по ID
 
-    List<ItemRequestDto> getAllRequestsByUser(Long userId); // Получение всех запросов пользователя
+    String getRequestEtag(Long userId, Long requestId); // Версия запроса для If-None-Match
+
+    Slice<ItemRequestDto> getAllRequestsByUser(Long userId, PageParams page); // Получение всех запросов пользователя
 
-    List<ItemRequestDto> getAllRequests(Long userId); // Получение всех запросов
+    Slice<ItemRequestDto> getAllRequests(Long userId, PageParams page); // Получение всех запросов
 }
\ No newline at end of file
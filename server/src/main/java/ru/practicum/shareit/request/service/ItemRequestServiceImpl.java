@@ -1,28 +1,37 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
+    private final EntityLoader entityLoader;
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(Long userId, ItemRequestDto itemRequestDto) {
-        User requestor = userRepository.findById(userId)
+        User requestor = entityLoader.find(User.class, userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
         ItemRequest request = new ItemRequest();
         request.setDescription(itemRequestDto.getDescription());
@@ -34,26 +43,42 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        ItemRequest request = itemRequestRepository.findById(requestId)
+        checkUserExists(userId);
+        ItemRequest request = entityLoader.find(ItemRequest.class, requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден"));
         return ItemRequestMapper.toDto(request);
     }
 
+    // В ответ входят вещи, созданные по запросу: их число и версии тоже участвуют в теге
     @Override
-    public List<ItemRequestDto> getAllRequestsByUser(Long userId) {
-        User requestor = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorOrderByCreatedDesc(requestor);
-        return requests.stream()
-                .map(ItemRequestMapper::toDto)
-                .collect(Collectors.toList());
+    public String getRequestEtag(Long userId, Long requestId) {
+        // Как и для ответа 200: неизвестный пользователь получает 404, а не 304
+        checkUserExists(userId);
+        ItemRequest request = entityLoader.find(ItemRequest.class, requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден"));
+        ItemRepository.RequestItemsVersion items = itemRepository.findRequestItemsVersion(requestId);
+        return ETags.weak("request", request.getId(), request.getVersion(), items.getCount(), items.getVersions());
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequests(Long userId) {
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorNotOrderByCreatedDesc(userId);
-        return requests.stream()
-                .map(ItemRequestMapper::toDto)
-                .collect(Collectors.toList());
+    public Slice<ItemRequestDto> getAllRequestsByUser(Long userId, PageParams page) {
+        checkUserExists(userId);
+        KeysetCursor.TimestampKey cursor = KeysetCursor.decodeTimestampKey(page.getCursor());
+        return itemRequestRepository.findRequestorRequests(userId, cursor.timestamp(), cursor.id(),
+                        page.pageable())
+                .map(ItemRequestMapper::toDto);
+    }
+
+    @Override
+    public Slice<ItemRequestDto> getAllRequests(Long userId, PageParams page) {
+        KeysetCursor.TimestampKey cursor = KeysetCursor.decodeTimestampKey(page.getCursor());
+        return itemRequestRepository.findOtherUsersRequests(userId, cursor.timestamp(), cursor.id(), page.pageable())
+                .map(ItemRequestMapper::toDto);
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!entityCache.exists(User.class, userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
+        }
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.transaction;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Правка структур в памяти (индексы, календари) только после коммита: откаченная транзакция не должна
+// оставить в них свои изменения
+@UtilityClass
+public class AfterCommit {
+    // Вне транзакции (и в тестах без нее) выполняем сразу
+    public void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
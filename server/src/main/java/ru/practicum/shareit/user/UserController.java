@@ -2,7 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -20,14 +25,27 @@ public class UserController {
         return userService.createUser(userDto);
     }
 
+    @PostMapping("/batch")
+    public List<UserDto> createUsers(@RequestBody List<UserDto> userDtos) {
+        return userService.createUsers(userDtos);
+    }
+
+    // При совпавшем If-None-Match checkNotModified выставляет 304, тело не строится
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
-        return userService.getUserById(userId);
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId, WebRequest request) {
+        String etag = userService.getUserEtag(userId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(userService.getUserById(userId));
     }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(defaultValue = PageParams.DEFAULT_FROM) int from,
+                                                     @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) int size,
+                                                     @RequestParam(required = false) String cursor) {
+        return Pages.toResponse(userService.getAllUsers(PageParams.of(from, size, cursor)),
+                user -> KeysetCursor.encode(user.getId()));
     }
 
     @PatchMapping("/{userId}")
@@ -9,4 +9,6 @@ public class UserDto {
     private String name;
     @Email(message = "Некорректный формат email")
     private String email;
+    private Double latitude;
+    private Double longitude;
 }
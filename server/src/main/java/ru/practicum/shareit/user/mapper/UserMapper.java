@@ -12,6 +12,8 @@ public class UserMapper {
         userDto.setId(user.getId());
         userDto.setName(user.getName());
         userDto.setEmail(user.getEmail());
+        userDto.setLatitude(user.getLatitude());
+        userDto.setLongitude(user.getLongitude());
         return userDto;
     }
 
@@ -20,6 +22,8 @@ public class UserMapper {
         user.setId(userDto.getId());
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
+        user.setLatitude(userDto.getLatitude());
+        user.setLongitude(userDto.getLongitude());
         return user;
     }
 }
@@ -4,15 +4,21 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
+    // Последовательность с шагом 50 (V7): id выдаются без обращения к базе на каждую вставку
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -20,4 +26,19 @@ public class User {
 
     @Column(nullable = false, unique = true)
     private String email;
+
+    // Координаты (V10): центр поиска вещей рядом, если запрос не задал точку явно
+    private Double latitude;
+
+    private Double longitude;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public User(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,21 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findRegisteredEmails(@Param("emails") Collection<String> emails);
+
+    Slice<User> findAllByIdGreaterThanOrderById(Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -7,9 +9,13 @@ import java.util.List;
 public interface UserService {
     UserDto createUser(UserDto userDto);
 
+    List<UserDto> createUsers(List<UserDto> userDtos);
+
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    String getUserEtag(Long userId);
+
+    Slice<UserDto> getAllUsers(PageParams page);
 
     UserDto updateUser(Long userId, UserDto userDto);
 
@@ -1,42 +1,110 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
+import ru.practicum.shareit.booking.service.BookingRepository;
+import ru.practicum.shareit.bulk.BulkInsert;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.geo.Coordinates;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemGeoIndex;
+import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final EntityCache entityCache;
+    private final BulkInsert bulkInsert;
+    private final EntityLoader entityLoader;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemGeoIndex geoIndex;
+    private final BookingRepository bookingRepository;
+    private final AvailabilityCalendar availabilityCalendar;
+
+    private static final int EMAIL_CHECK_BATCH_SIZE = 1000;
 
     @Override
     public UserDto createUser(UserDto userDto) {
         if (isEmailAlreadyRegistered(userDto.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
+        Coordinates.validate(userDto.getLatitude(), userDto.getLongitude());
         User user = UserMapper.toEntity(userDto);
         User savedUser = userRepository.save(user);
         return UserMapper.toDto(savedUser);
     }
 
+    // Все или ничего: при конфликте email не сохраняется ни один пользователь
+    @Override
+    @Transactional
+    public List<UserDto> createUsers(List<UserDto> userDtos) {
+        List<String> emails = userDtos.stream()
+                .map(UserDto::getEmail)
+                .toList();
+        userDtos.forEach(userDto -> Coordinates.validate(userDto.getLatitude(), userDto.getLongitude()));
+        Set<String> unique = new HashSet<>();
+        for (String email : emails) {
+            if (!unique.add(email)) {
+                throw new ConflictException("Email " + email + " повторяется в списке");
+            }
+        }
+        for (int from = 0; from < emails.size(); from += EMAIL_CHECK_BATCH_SIZE) {
+            List<String> registered = userRepository.findRegisteredEmails(
+                    emails.subList(from, Math.min(from + EMAIL_CHECK_BATCH_SIZE, emails.size())));
+            if (!registered.isEmpty()) {
+                throw new ConflictException("Email уже зарегистрирован: " + String.join(", ", registered));
+            }
+        }
+
+        List<User> users = userDtos.stream()
+                .map(userDto -> {
+                    User user = UserMapper.toEntity(userDto);
+                    user.setId(null);
+                    return user;
+                })
+                .toList();
+        return bulkInsert.persistAll(users, UserMapper::toDto);
+    }
+
     @Override
     public UserDto getUserById(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = entityLoader.find(User.class, userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
         return UserMapper.toDto(user);
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toDto)
-                .collect(Collectors.toList());
+    public String getUserEtag(Long userId) {
+        User user = entityLoader.find(User.class, userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+        return ETags.weak("user", user.getId(), user.getVersion());
+    }
+
+    @Override
+    public Slice<UserDto> getAllUsers(PageParams page) {
+        return userRepository.findAllByIdGreaterThanOrderById(KeysetCursor.decodeId(page.getCursor()), page.pageable())
+                .map(UserMapper::toDto);
     }
 
     @Override
@@ -56,14 +124,32 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null) {
             existingUser.setEmail(userDto.getEmail());
         }
+        if (userDto.getLatitude() != null || userDto.getLongitude() != null) {
+            Coordinates.validate(userDto.getLatitude(), userDto.getLongitude());
+            existingUser.setLatitude(userDto.getLatitude());
+            existingUser.setLongitude(userDto.getLongitude());
+        }
 
         User updatedUser = userRepository.save(existingUser);
         return UserMapper.toDto(updatedUser);
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerId(userId);
         userRepository.deleteById(userId);
+        // Вещи и запросы пользователя база удаляет каскадом, а items.request_id обнуляет - мимо кэша Hibernate
+        // и мимо ItemSearchIndexListener
+        entityCache.evict(Item.class, ItemRequest.class);
+        AfterCommit.run(() -> itemIds.forEach(id -> {
+            searchIndex.remove(id);
+            geoIndex.remove(id);
+        }));
+        // Каскад удаляет и брони пользователя на чужие вещи: календари этих вещей строятся заново
+        itemIds.forEach(availabilityCalendar::bookingRejected);
+        bookedItemIds.forEach(availabilityCalendar::bookingRejected);
     }
 
     @Override
@@ -0,0 +1,6 @@
+-- Необязательные координаты вещей и пользователей для поиска рядом. Пространственный индекс - в памяти
+-- сервера (ItemGeoIndex), поэтому здесь только колонки: поиск в радиусе к базе не обращается
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
@@ -0,0 +1,18 @@
+-- Окно последних комментариев каждой вещи для карточки: не больше 10 строк на вещь, пополняется и обрезается
+-- в ItemServiceImpl.addComment под блокировкой строки вещи. Карточка читает окно, а не ранжирует всю историю
+CREATE TABLE IF NOT EXISTS item_latest_comments (
+    comment_id BIGINT PRIMARY KEY REFERENCES comments(id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- LatestCommentRepository.trim и CommentRepository.findLatestByItemIds: WHERE item_id = ? ORDER BY created DESC, comment_id DESC
+CREATE INDEX IF NOT EXISTS item_latest_comments_item_id_created_idx
+    ON item_latest_comments (item_id, created, comment_id);
+
+INSERT INTO item_latest_comments (comment_id, item_id, created)
+SELECT w.id, w.item_id, w.created
+FROM (SELECT c.id, c.item_id, c.created,
+             ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS position
+      FROM comments c) w
+WHERE w.position <= 10;
@@ -0,0 +1,23 @@
+-- Индексы под выборки репозиториев; в составных индексах порядок колонок совпадает с WHERE + ORDER BY
+
+-- BookingRepository.findBooker*: WHERE booker_id = ? ORDER BY start_date DESC, id DESC
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_idx ON bookings (booker_id, start_date, id);
+
+-- BookingRepository.findOwner*, findLastBookings, findNextBookings: по вещам в порядке начала
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_idx ON bookings (item_id, start_date);
+
+-- ItemRepository.findAllByOwnerIdAndIdGreaterThanOrderById и join броней владельца
+DROP INDEX IF EXISTS items_owner_id_idx;
+CREATE INDEX IF NOT EXISTS items_owner_id_id_idx ON items (owner_id, id);
+
+-- Ленивая коллекция ItemRequest.items
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+-- CommentRepository.findAllByItemId, findAllByItemIdInOrderByCreated
+CREATE INDEX IF NOT EXISTS comments_item_id_created_idx ON comments (item_id, created);
+
+-- ItemRequestRepository.findRequestorRequests: WHERE requestor_id = ? ORDER BY created DESC, id DESC
+CREATE INDEX IF NOT EXISTS requests_requestor_id_created_idx ON requests (requestor_id, created, id);
+
+-- ItemRequestRepository.findOtherUsersRequests: requestor_id <> ? не сужает выборку, идем по порядку created
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created, id);
@@ -0,0 +1,3 @@
+-- BookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc: проверка пересечения с подтвержденными
+-- бронями вещи - один спуск по (item_id, status, end_date) до первой брони, заканчивающейся после начала новой
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_end_date_idx ON bookings (item_id, status, end_date);
@@ -0,0 +1,3 @@
+-- BookingRepository.findIdsByStatusAndEndBefore: фоновый проход BookingExpiryService выбирает
+-- нерассмотренные завершившиеся брони диапазоном по (status, end_date), не читая всю таблицу
+CREATE INDEX IF NOT EXISTS bookings_status_end_date_idx ON bookings (status, end_date);
@@ -0,0 +1,8 @@
+-- Денормализованное число комментариев: карточка вещи показывает счетчик и окно последних комментариев
+-- вместо всей истории. Поддерживается ItemServiceImpl.addComment под блокировкой строки вещи
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id);
+
+-- CommentRepository.findLatestByItemIds, findItemComments: WHERE item_id = ? ORDER BY created DESC, id DESC
+CREATE INDEX IF NOT EXISTS comments_item_id_created_id_idx ON comments (item_id, created, id);
+DROP INDEX IF EXISTS comments_item_id_created_idx;
@@ -0,0 +1,5 @@
+-- ItemRepository.findIdsFreeBetween: анти-join поиска по периоду проверяет пересечение по индексу,
+-- не читая строки броней. Префикс (item_id, status, end_date) по-прежнему обслуживает проверку пересечения
+-- при бронировании, поэтому прежний индекс из V3 больше не нужен
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_end_start_idx ON bookings (item_id, status, end_date, start_date);
+DROP INDEX IF EXISTS bookings_item_id_status_end_date_idx;
@@ -5,22 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -103,13 +118,73 @@ class BookingControllerTest {
         bookingDto.setEnd(LocalDateTime.now().plusHours(2));
 
         List<BookingDto> bookings = Collections.singletonList(bookingDto);
-        when(bookingService.getAllBookingsByOwner(anyLong(), eq(BookingState.ALL)))
-                .thenReturn(bookings);
+        when(bookingService.getAllBookingsByOwner(anyLong(), eq(BookingState.ALL), any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(bookings, PageRequest.of(0, 1), true));
 
-        mockMvc.perform(get("/bookings?state=ALL")
+        mockMvc.perform(get("/bookings?state=ALL&from=0&size=1")
                         .header(USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
-        verify(bookingService).getAllBookingsByOwner(eq(1L), eq(BookingState.ALL));
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().string(Pages.NEXT_CURSOR_HEADER,
+                        KeysetCursor.encode(bookingDto.getStart(), bookingDto.getId())));
+        verify(bookingService).getAllBookingsByOwner(eq(1L), eq(BookingState.ALL), any(PageParams.class));
+    }
+
+    @Test
+    void exportBookingsByOwner_shouldWriteOneJsonLinePerBooking() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 2; id++) {
+                BookingDto bookingDto = new BookingDto();
+                bookingDto.setId(id);
+                consumer.accept(bookingDto);
+            }
+            return null;
+        }).when(bookingService).exportBookingsByOwner(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/export")
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readValue(lines[1], BookingDto.class).getId());
+    }
+
+    @Test
+    void exportBookingsByOwner_whenUserNotFound_shouldReturnNotFound() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id=99 не найден"))
+                .when(bookingService).checkUserExists(99L);
+
+        mockMvc.perform(get("/bookings/export")
+                        .header(USER_ID_HEADER, 99L))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Пользователь с id=99 не найден"));
+        verify(bookingService, never()).exportBookingsByOwner(anyLong(), any());
+    }
+
+    @Test
+    void getAllBookingsByItemOwner() throws Exception {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(1L);
+        bookingDto.setStart(LocalDateTime.now().plusHours(1));
+        bookingDto.setEnd(LocalDateTime.now().plusHours(2));
+
+        when(bookingService.getAllBookingsByItemOwner(anyLong(), eq(BookingState.FUTURE), any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(bookingDto)));
+
+        mockMvc.perform(get("/bookings/owner?state=FUTURE")
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().doesNotExist(Pages.NEXT_CURSOR_HEADER));
+        verify(bookingService).getAllBookingsByItemOwner(eq(1L), eq(BookingState.FUTURE), any(PageParams.class));
     }
 }
\ No newline at end of file
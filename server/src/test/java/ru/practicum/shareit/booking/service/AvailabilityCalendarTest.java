@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCalendarTest {
+    private static final Long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private AvailabilityCalendar calendar;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new AvailabilityCalendar(bookingRepository, 30, 100);
+        day = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void getSlots_shouldLoadItemOnceAndApplyBookingChanges() {
+        when(bookingRepository.findCalendarIntervals(eq(ITEM_ID), anyCollection(), any(), any()))
+                .thenReturn(List.of(interval(day.plusHours(1), day.plusHours(2), Booking.Status.APPROVED)));
+        calendar.getSlots(ITEM_ID, day, day.plusHours(6));
+
+        calendar.bookingCreated(ITEM_ID, day.plusHours(3), day.plusHours(5));
+        calendar.bookingApproved(ITEM_ID, day.plusHours(3), day.plusHours(4));
+        List<AvailabilitySlotDto> result = calendar.getSlots(ITEM_ID, day, day.plusHours(6));
+
+        assertEquals(List.of(
+                new AvailabilitySlotDto(day, day.plusHours(1), "FREE"),
+                new AvailabilitySlotDto(day.plusHours(1), day.plusHours(2), "BUSY"),
+                new AvailabilitySlotDto(day.plusHours(2), day.plusHours(3), "FREE"),
+                new AvailabilitySlotDto(day.plusHours(3), day.plusHours(4), "BUSY"),
+                new AvailabilitySlotDto(day.plusHours(4), day.plusHours(5), "PENDING"),
+                new AvailabilitySlotDto(day.plusHours(5), day.plusHours(6), "FREE")), result);
+        verify(bookingRepository, times(1)).findCalendarIntervals(eq(ITEM_ID), anyCollection(), any(), any());
+    }
+
+    @Test
+    void getSlots_afterRejection_shouldRebuildItemCalendar() {
+        when(bookingRepository.findCalendarIntervals(eq(ITEM_ID), anyCollection(), any(), any()))
+                .thenReturn(List.of(interval(day.plusHours(1), day.plusHours(2), Booking.Status.WAITING)))
+                .thenReturn(List.of());
+        calendar.getSlots(ITEM_ID, day, day.plusHours(3));
+
+        calendar.bookingRejected(ITEM_ID);
+        List<AvailabilitySlotDto> result = calendar.getSlots(ITEM_ID, day, day.plusHours(3));
+
+        assertEquals(List.of(new AvailabilitySlotDto(day, day.plusHours(3), "FREE")), result);
+        verify(bookingRepository, times(2)).findCalendarIntervals(eq(ITEM_ID), anyCollection(), any(), any());
+    }
+
+    @Test
+    void getSlots_outsideHorizon_shouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> calendar.getSlots(ITEM_ID, day, day.plusDays(31)));
+        assertThrows(ValidationException.class, () -> calendar.getSlots(ITEM_ID, day.minusDays(2), day));
+        assertThrows(ValidationException.class, () -> calendar.getSlots(ITEM_ID, day, day));
+    }
+
+    private BookingRepository.CalendarInterval interval(LocalDateTime start, LocalDateTime end,
+                                                        Booking.Status status) {
+        return new BookingRepository.CalendarInterval() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+
+            @Override
+            public Booking.Status getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// Без @Transactional: каждое подтверждение идет в своей транзакции, как параллельные запросы владельца
+@SpringBootTest
+class BookingApproveConcurrencyTest {
+    private static final int BOOKINGS = 8;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("race-owner@mail.com");
+        booker = saveUser("race-booker@mail.com");
+        item = new Item();
+        item.setName("Item");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        // Все брони пересекаются друг с другом: подтвердить можно только одну
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusHours(i));
+            booking.setEnd(start.plusDays(1).plusHours(i));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(Booking.Status.WAITING);
+            bookings.add(bookingRepository.save(booking));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // По id, а не по сущностям: подтвержденная бронь уже имеет другую версию
+        bookingRepository.deleteAllById(bookings.stream().map(Booking::getId).toList());
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @RepeatedTest(5)
+    void approveBooking_concurrentlyForOverlappingBookings_shouldApproveOnlyOne() throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(BOOKINGS)) {
+            for (Booking booking : bookings) {
+                Callable<?> approve = () -> {
+                    startSignal.await();
+                    return bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                };
+                results.add(executor.submit(approve));
+            }
+            startSignal.countDown();
+
+            int approved = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    approved++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictException.class, e.getCause());
+                }
+            }
+            assertEquals(1, approved);
+        }
+        assertEquals(1, bookingRepository.findAllById(bookings.stream().map(Booking::getId).toList()).stream()
+                .filter(booking -> booking.getStatus() == Booking.Status.APPROVED)
+                .count());
+    }
+
+    @RepeatedTest(5)
+    void approveOrRejectBooking_concurrentlyForSameBooking_shouldApplyOnlyOneTransition() throws Exception {
+        Booking booking = bookings.get(0);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                boolean approved = i % 2 == 0;
+                Callable<BookingDto> decide = () -> {
+                    startSignal.await();
+                    return bookingService.approveBooking(owner.getId(), booking.getId(), approved);
+                };
+                results.add(executor.submit(decide));
+            }
+            startSignal.countDown();
+
+            List<BookingDto> winners = new ArrayList<>();
+            for (Future<BookingDto> result : results) {
+                try {
+                    winners.add(result.get());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictException.class, e.getCause());
+                }
+            }
+            assertEquals(1, winners.size());
+
+            Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertEquals(winners.get(0).getStatus(), stored.getStatus().name());
+            // Ровно одно изменение строки
+            assertEquals(booking.getVersion() + 1, stored.getVersion());
+        }
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
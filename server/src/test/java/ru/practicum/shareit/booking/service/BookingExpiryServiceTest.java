@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.booking.Booking.Status.APPROVED;
+import static ru.practicum.shareit.booking.Booking.Status.REJECTED;
+import static ru.practicum.shareit.booking.Booking.Status.WAITING;
+
+// Маленькая пачка, чтобы проход занял несколько транзакций
+@SpringBootTest(properties = "shareit.booking.expiry.batch-size=2")
+@Transactional
+class BookingExpiryServiceTest {
+
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private AvailabilityCalendar availabilityCalendar;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = persistUser("expiry-owner@mail.com");
+        booker = persistUser("expiry-booker@mail.com");
+        item = new Item();
+        item.setName("Item");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        entityManager.persist(item);
+    }
+
+    @Test
+    void expireStaleBookings_shouldRejectOnlyFinishedWaitingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> stale = List.of(
+                persistBooking(now.minusDays(3), WAITING),
+                persistBooking(now.minusDays(2), WAITING),
+                persistBooking(now.minusDays(1), WAITING));
+        Booking future = persistBooking(now.plusDays(1), WAITING);
+        Booking approved = persistBooking(now.minusDays(1), APPROVED);
+        entityManager.flush();
+        DistributionSummary sweeps = meterRegistry.get("booking.expiry.sweep.bookings").summary();
+        long sweepsBefore = sweeps.count();
+
+        int expired = bookingExpiryService.expireStaleBookings();
+        entityManager.clear();
+
+        assertTrue(expired >= stale.size());
+        stale.forEach(booking -> assertEquals(REJECTED, find(booking).getStatus()));
+        assertEquals(WAITING, find(future).getStatus());
+        // Завершившиеся подтвержденные брони остаются последними бронированиями вещи
+        assertEquals(APPROVED, find(approved).getStatus());
+        assertEquals(sweepsBefore + 1, sweeps.count());
+
+        assertEquals(0, bookingExpiryService.expireStaleBookings());
+    }
+
+    @Test
+    void expireStaleBookings_shouldInvalidateCalendarOfAffectedItem() {
+        LocalDateTime now = LocalDateTime.now();
+        persistBooking(now.minusDays(2), WAITING);
+        persistBooking(now.minusDays(1), WAITING);
+        persistBooking(now.minusHours(1), WAITING);
+        entityManager.flush();
+
+        bookingExpiryService.expireStaleBookings();
+
+        verify(availabilityCalendar, atLeastOnce()).bookingRejected(item.getId());
+    }
+
+    private Booking find(Booking booking) {
+        return entityManager.find(Booking.class, booking.getId());
+    }
+
+    private Booking persistBooking(LocalDateTime end, Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setStart(end.minusDays(1));
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        entityManager.persist(booking);
+        return booking;
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -4,13 +4,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserRepository;
 
@@ -157,6 +161,46 @@ class BookingServiceImplIntegrationTest {
         assertThrows(RuntimeException.class, () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
     }
 
+    @Test
+    void createBooking_OverlappingApprovedBooking_ThrowsConflictException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        saveBooking(start, start.plusDays(2), APPROVED);
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(start.plusDays(1));
+        bookingDto.setEnd(start.plusDays(3));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(booker.getId(), bookingDto));
+    }
+
+    @Test
+    void createBooking_AdjacentToApprovedBookings_ReturnsBookingDto() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        saveBooking(start, start.plusDays(1), APPROVED);
+        saveBooking(start.plusDays(2), start.plusDays(3), APPROVED);
+        // Пересекающиеся неподтвержденные брони не мешают: выбирает владелец
+        saveBooking(start, start.plusDays(3), WAITING);
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(start.plusDays(1));
+        bookingDto.setEnd(start.plusDays(2));
+
+        assertEquals(WAITING.name(), bookingService.createBooking(booker.getId(), bookingDto).getStatus());
+    }
+
+    @Test
+    void approveBooking_OverlappingApprovedBooking_ThrowsConflictException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        saveBooking(start, start.plusDays(2), APPROVED);
+        Booking waiting = saveBooking(start.minusDays(1), start.plusHours(1), WAITING);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.approveBooking(owner.getId(), waiting.getId(), true));
+        assertEquals(REJECTED.name(), bookingService.approveBooking(owner.getId(), waiting.getId(), false).getStatus());
+    }
+
     @Test
     void getBookingById_ValidData_ReturnsBookingDto() {
         Booking booking = new Booking();
@@ -192,7 +236,7 @@ class BookingServiceImplIntegrationTest {
     }
 
     @Test
-    void getBookingById_WithExpiredBooking_UpdatesStatus() {
+    void getBookingById_WithExpiredBooking_DoesNotChangeStatus() {
         Booking booking = new Booking();
         booking.setStart(LocalDateTime.now().minusDays(2));
         booking.setEnd(LocalDateTime.now().minusDays(1));
@@ -203,7 +247,7 @@ class BookingServiceImplIntegrationTest {
 
         BookingDto result = bookingService.getBookingById(booker.getId(), booking.getId());
 
-        assertEquals(REJECTED.name(), result.getStatus());
+        assertEquals(APPROVED.name(), result.getStatus());
     }
 
     @Test
@@ -216,7 +260,7 @@ class BookingServiceImplIntegrationTest {
         booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.CURRENT);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.CURRENT, PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -232,7 +276,7 @@ class BookingServiceImplIntegrationTest {
         booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.PAST);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.PAST, PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -248,7 +292,7 @@ class BookingServiceImplIntegrationTest {
         booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.FUTURE);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.FUTURE, PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -264,7 +308,7 @@ class BookingServiceImplIntegrationTest {
         booking.setStatus(WAITING);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.WAITING);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.WAITING, PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -280,7 +324,7 @@ class BookingServiceImplIntegrationTest {
         booking.setStatus(REJECTED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.REJECTED);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.REJECTED, PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -304,8 +348,134 @@ class BookingServiceImplIntegrationTest {
         booking2.setStatus(REJECTED);
         bookingRepository.save(booking2);
 
-        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL);
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL, PageParams.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
+
+    @Test
+    void getAllBookingsByOwner_WithCursor_ContinuesAfterLastKey() {
+        // Секунды без дробной части: ключ курсора должен совпадать с тем, что хранит БД
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        for (int i = 1; i <= 5; i++) {
+            Booking booking = new Booking();
+            booking.setStart(base.plusDays(i));
+            booking.setEnd(base.plusDays(i).plusHours(1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(WAITING);
+            bookingRepository.save(booking);
+        }
+
+        Slice<BookingDto> first = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL,
+                PageParams.of(0, 2));
+        BookingDto last = first.getContent().get(1);
+        Slice<BookingDto> second = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL,
+                PageParams.of(0, 2, KeysetCursor.encode(last.getStart(), last.getId())));
+        BookingDto secondLast = second.getContent().get(1);
+        Slice<BookingDto> third = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL,
+                PageParams.of(0, 2, KeysetCursor.encode(secondLast.getStart(), secondLast.getId())));
+
+        assertTrue(first.hasNext());
+        assertTrue(second.hasNext());
+        assertFalse(third.hasNext());
+        assertEquals(1, third.getContent().size());
+        assertTrue(second.getContent().get(0).getStart().isBefore(last.getStart()));
+        assertEquals(bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL, PageParams.of(4, 2))
+                .getContent().get(0).getId(), third.getContent().get(0).getId());
+    }
+
+    @Test
+    void getAllBookingsByItemOwner_ReturnsOnlyBookingsOfOwnedItems() {
+        User otherOwner = new User();
+        otherOwner.setName("Other owner");
+        otherOwner.setEmail("other.owner@mail.com");
+        userRepository.save(otherOwner);
+
+        Item otherItem = new Item();
+        otherItem.setName("Other item");
+        otherItem.setDescription("Other description");
+        otherItem.setAvailable(true);
+        otherItem.setOwner(otherOwner);
+        itemRepository.save(otherItem);
+
+        Booking own = new Booking();
+        own.setStart(LocalDateTime.now().plusDays(1));
+        own.setEnd(LocalDateTime.now().plusDays(2));
+        own.setItem(item);
+        own.setBooker(booker);
+        own.setStatus(WAITING);
+        bookingRepository.save(own);
+
+        Booking foreign = new Booking();
+        foreign.setStart(LocalDateTime.now().plusDays(1));
+        foreign.setEnd(LocalDateTime.now().plusDays(2));
+        foreign.setItem(otherItem);
+        foreign.setBooker(booker);
+        foreign.setStatus(WAITING);
+        bookingRepository.save(foreign);
+
+        List<BookingDto> result = bookingService.getAllBookingsByItemOwner(owner.getId(), BookingState.ALL,
+                PageParams.of(0, 10)).getContent();
+
+        assertEquals(1, result.size());
+        assertEquals(own.getId(), result.get(0).getId());
+        assertTrue(bookingService.getAllBookingsByItemOwner(booker.getId(), BookingState.ALL, PageParams.of(0, 10))
+                .isEmpty());
+    }
+
+    @Test
+    void getAllBookingsByItemOwner_WithStates_FiltersByTimeAndStatus() {
+        Booking past = new Booking();
+        past.setStart(LocalDateTime.now().minusDays(2));
+        past.setEnd(LocalDateTime.now().minusDays(1));
+        past.setItem(item);
+        past.setBooker(booker);
+        past.setStatus(APPROVED);
+        bookingRepository.save(past);
+
+        Booking current = new Booking();
+        current.setStart(LocalDateTime.now().minusHours(1));
+        current.setEnd(LocalDateTime.now().plusHours(1));
+        current.setItem(item);
+        current.setBooker(booker);
+        current.setStatus(APPROVED);
+        bookingRepository.save(current);
+
+        Booking future = new Booking();
+        future.setStart(LocalDateTime.now().plusDays(1));
+        future.setEnd(LocalDateTime.now().plusDays(2));
+        future.setItem(item);
+        future.setBooker(booker);
+        future.setStatus(REJECTED);
+        bookingRepository.save(future);
+
+        assertEquals(past.getId(), ownerBookings(BookingState.PAST).get(0).getId());
+        assertEquals(current.getId(), ownerBookings(BookingState.CURRENT).get(0).getId());
+        assertEquals(future.getId(), ownerBookings(BookingState.FUTURE).get(0).getId());
+        assertEquals(future.getId(), ownerBookings(BookingState.REJECTED).get(0).getId());
+        assertTrue(ownerBookings(BookingState.WAITING).isEmpty());
+        assertEquals(List.of(future.getId(), current.getId(), past.getId()),
+                ownerBookings(BookingState.ALL).stream().map(BookingDto::getId).toList());
+    }
+
+    @Test
+    void getAllBookingsByItemOwner_WithNonExistentUser_ThrowsNotFoundException() {
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getAllBookingsByItemOwner(999L, BookingState.ALL, PageParams.of(0, 10)));
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end, Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private List<BookingDto> ownerBookings(BookingState state) {
+        return bookingService.getAllBookingsByItemOwner(owner.getId(), state, PageParams.of(0, 10)).getContent();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingServiceQueryCountTest {
+    private static final int ITEMS = 50;
+    private static final int BOOKINGS = 1000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User booker;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        booker = persistUser("booker");
+        LocalDateTime now = LocalDateTime.now();
+        Item[] items = new Item[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Item " + i);
+            item.setDescription("Description " + i);
+            item.setAvailable(true);
+            item.setOwner(persistUser("owner" + i));
+            entityManager.persist(item);
+            items[i] = item;
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            // Треть в прошлом, треть текущих, треть в будущем
+            LocalDateTime start = now.plusDays(i % 3 - 1).minusHours(1).plusMinutes(i);
+            booking.setStart(start);
+            booking.setEnd(start.plusHours(2));
+            booking.setItem(items[i % ITEMS]);
+            booking.setBooker(booker);
+            booking.setStatus(i % 2 == 0 ? Booking.Status.WAITING : Booking.Status.REJECTED);
+            entityManager.persist(booking);
+        }
+        // Иначе вещи и пользователи остаются в контексте и ленивые связи не проверяются
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllBookingsByOwner_withThousandBookings_shouldUseTwoStatements() {
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), BookingState.ALL,
+                PageParams.of(0, BOOKINGS)).getContent();
+
+        assertEquals(BOOKINGS, result.size());
+        assertEquals(ITEMS, result.stream().map(b -> b.getItem().getName()).distinct().count());
+        // Проверка пользователя и сама выборка с вещью и арендатором
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void getAllBookingsByOwner_forEveryState_shouldNotLoadRelationsPerRow(BookingState state) {
+        List<BookingDto> result = bookingService.getAllBookingsByOwner(booker.getId(), state,
+                PageParams.of(0, BOOKINGS)).getContent();
+
+        result.forEach(b -> assertEquals(booker.getId(), b.getBooker().getId()));
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Запросов: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportBookingsByOwner_shouldStreamWholeHistoryWithOneQuery() {
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportBookingsByOwner(booker.getId(), exported::add);
+
+        assertEquals(BOOKINGS, exported.size());
+        for (int i = 1; i < exported.size(); i++) {
+            assertTrue(!exported.get(i).getStart().isAfter(exported.get(i - 1).getStart()));
+        }
+        assertEquals(ITEMS, exported.stream().map(b -> b.getItem().getName()).distinct().count());
+        // Проверка пользователя и курсор по бронированиям с вещью и арендатором
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.com");
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class EntityLoaderTest {
+    @Autowired
+    private EntityLoader entityLoader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockHttpServletRequest request;
+    private Statistics statistics;
+    private User first;
+    private User second;
+    private User third;
+
+    @BeforeEach
+    void setUp() {
+        first = persistUser("first");
+        second = persistUser("second");
+        third = persistUser("third");
+        entityManager.flush();
+        entityManager.clear();
+        // Иначе пользователи придут из кэша второго уровня и IN-запрос не понадобится
+        entityManagerFactory.getCache().evict(User.class);
+
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void find_sameEntityTwiceInRequest_shouldReuseFirstLoad() {
+        User loaded = entityLoader.find(User.class, first.getId()).orElseThrow();
+        User again = entityLoader.find(User.class, first.getId()).orElseThrow();
+
+        assertSame(loaded, again);
+        assertEquals(1, EntityLoader.avoidedLoads(request));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_shouldLoadMissingIdsWithOneQuery() {
+        entityLoader.find(User.class, first.getId());
+        statistics.clear();
+
+        Map<Long, User> users = entityLoader.findAll(User.class,
+                List.of(first.getId(), second.getId(), third.getId(), second.getId(), -1L));
+
+        assertEquals(3, users.size());
+        assertEquals("third", users.get(third.getId()).getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, EntityLoader.avoidedLoads(request));
+    }
+
+    @Test
+    void find_missingEntity_shouldRememberAbsence() {
+        assertTrue(entityLoader.find(User.class, -1L).isEmpty());
+        assertTrue(entityLoader.find(User.class, -1L).isEmpty());
+
+        assertEquals(1, EntityLoader.avoidedLoads(request));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void find_afterPersistenceContextCleared_shouldReloadDetachedEntity() {
+        User loaded = entityLoader.find(User.class, first.getId()).orElseThrow();
+        entityManager.clear();
+
+        User reloaded = entityLoader.find(User.class, first.getId()).orElseThrow();
+
+        assertNotSame(loaded, reloaded);
+        assertTrue(entityManager.contains(reloaded));
+        assertEquals(0, EntityLoader.avoidedLoads(request));
+    }
+
+    @Test
+    void find_outsideRequest_shouldNotRemember() {
+        RequestContextHolder.resetRequestAttributes();
+
+        entityLoader.find(User.class, first.getId());
+        entityLoader.find(User.class, first.getId());
+
+        assertEquals(0, EntityLoader.avoidedLoads(request));
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@loader.com");
+        entityManager.persist(user);
+        return user;
+    }
+}
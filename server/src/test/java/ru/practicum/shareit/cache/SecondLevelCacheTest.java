@@ -0,0 +1,180 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.service.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comments.dto.CommentDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Без @Transactional: в кэш второго уровня попадает только закоммиченное
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDto user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.createUser(userDto("Cached", "cached@mail.com"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(user.getId());
+    }
+
+    @Test
+    void getUserById_repeated_shouldBeServedFromCache() {
+        userService.getUserById(user.getId());
+        statistics.clear();
+
+        assertEquals("Cached", userService.getUserById(user.getId()).getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void updateUser_shouldRefreshCachedEntry() {
+        userService.getUserById(user.getId());
+
+        userService.updateUser(user.getId(), userDto("Renamed", "cached@mail.com"));
+
+        assertEquals("Renamed", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void existenceCheck_forCachedUser_shouldNotQueryUser() {
+        userService.getUserById(user.getId());
+        statistics.clear();
+
+        bookingService.getAllBookingsByOwner(user.getId(), BookingState.ALL, PageParams.of(0, 10));
+
+        // Только выборка бронирований, пользователь проверен по кэшу
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getAllBookingsByOwner(-1L, BookingState.ALL, PageParams.of(0, 10)));
+    }
+
+    @Test
+    void deleteUser_shouldEvictItemsRemovedByCascade() {
+        UserDto owner = userService.createUser(userDto("Owner", "cached-owner@mail.com"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        Long itemId = itemService.addItem(owner.getId(), itemDto).getId();
+        itemService.getItemById(itemId);
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(itemId));
+    }
+
+    @Test
+    void addComment_shouldEvictOnlyCommentedItem() {
+        UserDto owner = userService.createUser(userDto("Owner", "comment-owner@mail.com"));
+        Long commentedId = itemService.addItem(owner.getId(), itemDto("Commented")).getId();
+        Long otherId = itemService.addItem(owner.getId(), itemDto("Other")).getId();
+        Booking booking = new Booking();
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setItem(itemRepository.findById(commentedId).orElseThrow());
+        booking.setBooker(userRepository.findById(user.getId()).orElseThrow());
+        booking.setStatus(Booking.Status.APPROVED);
+        bookingRepository.save(booking);
+        itemService.getItemById(commentedId);
+        itemService.getItemById(otherId);
+        Cache cache = entityManagerFactory.getCache();
+
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("Great item!");
+        itemService.addComment(user.getId(), commentedId, commentDto);
+
+        assertFalse(cache.contains(Item.class, commentedId));
+        assertTrue(cache.contains(Item.class, otherId));
+        assertEquals(1L, itemService.getItemById(commentedId).getCommentCount());
+        userService.deleteUser(owner.getId());
+    }
+
+    @Test
+    void hitRatio_shouldBeExposedPerRegion() {
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        Gauge hitRatio = meterRegistry.find("hibernate.second.level.cache.hit.ratio")
+                .tag("region", "users")
+                .gauge();
+
+        assertNotNull(hitRatio);
+        assertTrue(hitRatio.value() > 0);
+    }
+
+    private static ItemDto itemDto(String name) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        return itemDto;
+    }
+
+    private static UserDto userDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
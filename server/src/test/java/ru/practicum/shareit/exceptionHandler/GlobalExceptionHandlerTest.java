@@ -1,15 +1,21 @@
 package ru.practicum.shareit.exceptionHandler;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemController;
 
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -27,7 +33,7 @@ class GlobalExceptionHandlerTest {
 
     @Test
     void handleNotFoundException() throws Exception {
-        when(itemController.getItemById(anyLong()))
+        when(itemController.getItemById(anyLong(), any()))
                 .thenThrow(new NotFoundException("Объект не найден"));
 
         mockMvc.perform(get("/items/1")
@@ -38,7 +44,7 @@ class GlobalExceptionHandlerTest {
 
     @Test
     void handleValidationException() throws Exception {
-        when(itemController.getItemById(anyLong()))
+        when(itemController.getItemById(anyLong(), any()))
                 .thenThrow(new ValidationException("Некорректные данные"));
 
         mockMvc.perform(get("/items/1")
@@ -49,7 +55,7 @@ class GlobalExceptionHandlerTest {
 
     @Test
     void handleIllegalArgumentException() throws Exception {
-        when(itemController.getItemById(anyLong()))
+        when(itemController.getItemById(anyLong(), any()))
                 .thenThrow(new IllegalArgumentException("Недопустимый аргумент"));
 
         mockMvc.perform(get("/items/1")
@@ -58,9 +64,45 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.error").value("Недопустимый аргумент"));
     }
 
+    @Test
+    void handleConflictException() throws Exception {
+        when(itemController.getItemById(anyLong(), any()))
+                .thenThrow(new ConflictException("Период занят"));
+
+        mockMvc.perform(get("/items/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Период занят"));
+    }
+
+    @Test
+    void handleDataIntegrityViolation_onBookingOverlap_shouldReturnConflict() throws Exception {
+        when(itemController.getItemById(anyLong(), any()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("conflicting key value violates exclusion constraint",
+                                new SQLException("exclusion violation", "23P01"), "bookings_approved_no_overlap")));
+
+        mockMvc.perform(get("/items/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Вещь уже забронирована на пересекающийся период"));
+    }
+
+    @Test
+    void handleDataIntegrityViolation_onOtherConstraint_shouldReturnServerError() throws Exception {
+        when(itemController.getItemById(anyLong(), any()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("null value in column \"name\" violates not-null constraint",
+                                new SQLException("not null violation", "23502"), null)));
+
+        mockMvc.perform(get("/items/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError());
+    }
+
     @Test
     void handleAllExceptions() throws Exception {
-        when(itemController.getItemById(anyLong()))
+        when(itemController.getItemById(anyLong(), any()))
                 .thenThrow(new RuntimeException("Непредвиденная ошибка"));
 
         mockMvc.perform(get("/items/1")
@@ -2,24 +2,35 @@ package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -81,6 +92,19 @@ class ItemControllerTest {
         verify(itemService).updateItem(eq(1L), eq(1L), any(ItemDto.class));
     }
 
+    @Test
+    void getItemById_withMatchingIfNoneMatch_returnsNotModifiedWithoutBody() throws Exception {
+        when(itemService.getItemCard(anyLong(), any())).thenAnswer(cardWithEtag(new ItemWithBookingsDto(), "W/\"v1\""));
+
+        mockMvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, times(1)).getItemCard(eq(1L), any());
+    }
+
     @Test
     void getItemById() throws Exception {
         ItemWithBookingsDto itemWithBookingsDto = new ItemWithBookingsDto();
@@ -88,30 +112,30 @@ class ItemControllerTest {
         itemWithBookingsDto.setName("Дрель");
         itemWithBookingsDto.setDescription("Простая дрель");
 
-        when(itemService.getItemById(anyLong()))
-                .thenReturn(itemWithBookingsDto);
+        when(itemService.getItemCard(anyLong(), any())).thenAnswer(cardWithEtag(itemWithBookingsDto, "W/\"v1\""));
 
         mockMvc.perform(get("/items/1")
                         .header(USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Дрель"))
                 .andExpect(jsonPath("$.description").value("Простая дрель"));
 
-        verify(itemService).getItemById(eq(1L));
+        verify(itemService, times(1)).getItemCard(eq(1L), any());
     }
 
     @Test
     void getAllItemsByOwner() throws Exception {
-        ItemDto itemDto = new ItemDto();
+        ItemWithBookingsDto itemDto = new ItemWithBookingsDto();
         itemDto.setId(1L);
         itemDto.setName("Дрель");
         itemDto.setDescription("Простая дрель");
 
-        List<ItemDto> items = Collections.singletonList(itemDto);
+        List<ItemWithBookingsDto> items = Collections.singletonList(itemDto);
 
-        when(itemService.getAllItemsByOwner(anyLong()))
-                .thenReturn(items);
+        when(itemService.getAllItemsByOwner(anyLong(), any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(items));
 
         mockMvc.perform(get("/items")
                         .header(USER_ID_HEADER, 1L))
@@ -120,7 +144,7 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Дрель"))
                 .andExpect(jsonPath("$[0].description").value("Простая дрель"));
 
-        verify(itemService).getAllItemsByOwner(eq(1L));
+        verify(itemService).getAllItemsByOwner(eq(1L), any(PageParams.class));
     }
 
     @Test
@@ -132,18 +156,41 @@ class ItemControllerTest {
 
         List<ItemDto> items = Collections.singletonList(itemDto);
 
-        when(itemService.searchItems(anyString()))
+        when(itemService.searchItems(anyLong(), anyString(), any(ItemSearchFilter.class), anyInt(), anyInt()))
                 .thenReturn(items);
 
         mockMvc.perform(get("/items/search")
                         .param("text", "дрель")
+                        .param("from", "0")
+                        .param("size", "5")
                         .header(USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Дрель"))
                 .andExpect(jsonPath("$[0].description").value("Простая дрель"));
 
-        verify(itemService).searchItems(eq("дрель"));
+        verify(itemService).searchItems(eq(1L), eq("дрель"), any(ItemSearchFilter.class), eq(0), eq(5));
+    }
+
+    @Test
+    void searchItems_withFilter() throws Exception {
+        when(itemService.searchItems(isNull(), anyString(), any(ItemSearchFilter.class), anyInt(), anyInt()))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/items/search")
+                        .param("start", "2030-01-05T00:00:00")
+                        .param("end", "2030-01-07T00:00:00")
+                        .param("lat", "55.75")
+                        .param("lon", "37.62")
+                        .param("radius", "5")
+                        .param("nearest", "3"))
+                .andExpect(status().isOk());
+
+        verify(itemService).searchItems(isNull(), eq(""), argThat(filter ->
+                filter.getStart().equals(LocalDateTime.of(2030, 1, 5, 0, 0))
+                        && filter.getEnd().equals(LocalDateTime.of(2030, 1, 7, 0, 0))
+                        && filter.getLat() == 55.75 && filter.getLon() == 37.62
+                        && filter.getRadius() == 5 && filter.getNearest() == 3), eq(0), eq(10));
     }
 
     @Test
@@ -163,4 +210,27 @@ class ItemControllerTest {
 
         verify(itemService).addComment(eq(1L), eq(1L), any(CommentDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new AvailabilitySlotDto(from, to, "FREE")));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T10:00:00"))
+                .andExpect(jsonPath("$[0].status").value("FREE"));
+    }
+
+    // Как сервис: карточка отдается, только если проверка тега не ответила 304
+    private static Answer<ItemService.ItemCard> cardWithEtag(ItemWithBookingsDto item, String etag) {
+        return invocation -> {
+            Predicate<String> notModified = invocation.getArgument(1);
+            return new ItemService.ItemCard(notModified.test(etag) ? null : item, etag);
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemGeoIndexTest {
+    private ItemGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemGeoIndex();
+        // Москва: Кремль, Парк Горького (~2.5 км), Шереметьево (~29 км); Санкт-Петербург (~634 км)
+        index.index(1L, 55.7520, 37.6175, true);
+        index.index(2L, 55.7298, 37.6010, true);
+        index.index(3L, 55.9726, 37.4146, true);
+        index.index(4L, 59.9386, 30.3141, true);
+        index.index(5L, 55.7530, 37.6200, false);
+    }
+
+    @Test
+    void within_shouldReturnAvailableItemsInRadiusByDistance() {
+        List<ItemGeoIndex.Neighbor> result = index.within(55.7539, 37.6208, 30);
+
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(ItemGeoIndex.Neighbor::id).toList());
+        assertEquals(2.9, result.get(1).distanceKm(), 0.2);
+    }
+
+    @Test
+    void nearest_shouldWidenRadiusUntilEnoughItems() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.nearest(55.7539, 37.6208, 4, ItemGeoIndex.MAX_RADIUS_KM).stream()
+                .map(ItemGeoIndex.Neighbor::id).toList());
+        assertEquals(List.of(4L), index.nearest(59.93, 30.31, 1, ItemGeoIndex.MAX_RADIUS_KM).stream()
+                .map(ItemGeoIndex.Neighbor::id).toList());
+    }
+
+    @Test
+    void index_withNewCoordinates_shouldMoveItem() {
+        index.index(4L, 55.7540, 37.6210, true);
+
+        assertEquals(4L, index.nearest(55.7539, 37.6208, 1, 10).get(0).id());
+        assertTrue(index.within(59.9386, 30.3141, 50).isEmpty());
+    }
+
+    @Test
+    void index_withoutCoordinates_shouldRemoveItem() {
+        index.index(1L, null, null, true);
+        index.remove(2L);
+
+        assertEquals(List.of(3L), index.within(55.7539, 37.6208, 30).stream()
+                .map(ItemGeoIndex.Neighbor::id).toList());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void within_acrossAntimeridian_shouldFindItemsOnBothSides() {
+        index.index(10L, 65.0, 179.95, true);
+        index.index(11L, 65.0, -179.95, true);
+
+        assertEquals(List.of(10L, 11L), index.within(65.0, 180.0, 10).stream()
+                .map(ItemGeoIndex.Neighbor::id).sorted().toList());
+    }
+
+    @Test
+    void within_nearPole_shouldCoverAllLongitudes() {
+        index.index(20L, 89.95, 0.0, true);
+        index.index(21L, 89.95, 179.0, true);
+
+        assertEquals(List.of(20L, 21L), index.within(90.0, 0.0, 10).stream()
+                .map(ItemGeoIndex.Neighbor::id).sorted().toList());
+    }
+
+    @Test
+    void within_shouldMatchFullScanOnRandomPoints() {
+        Random random = new Random(42);
+        double[][] points = new double[5_000][];
+        ItemGeoIndex catalog = new ItemGeoIndex();
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{55 + random.nextDouble(), 37 + random.nextDouble() * 2};
+            catalog.index((long) i, points[i][0], points[i][1], true);
+        }
+
+        for (int query = 0; query < 20; query++) {
+            double lat = 55 + random.nextDouble();
+            double lon = 37 + random.nextDouble() * 2;
+            long scanned = Arrays.stream(points)
+                    .filter(point -> ItemGeoIndex.distanceKm(lat, lon, point[0], point[1]) <= 10)
+                    .count();
+            assertEquals(scanned, catalog.within(lat, lon, 10).size());
+        }
+    }
+}
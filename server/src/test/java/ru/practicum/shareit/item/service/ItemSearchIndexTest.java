@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.index(1L, "Дрель", "Простая дрель", true);
+        index.index(2L, "Отвертка", "Аккумуляторная отвертка", true);
+        index.index(3L, "Набор бит", "Подходит для дрели и отвертки", true);
+        index.index(4L, "Дрель ударная", "Сломана", false);
+    }
+
+    @Test
+    void search_shouldFindSubstringCaseInsensitive() {
+        assertEquals(List.of(1L, 3L), index.search("ДРЕЛ"));
+    }
+
+    @Test
+    void search_shouldRankNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(2L, 3L), index.search("отвертк"));
+    }
+
+    @Test
+    void search_shouldSkipUnavailableItems() {
+        assertFalse(index.search("ударная").contains(4L));
+    }
+
+    @Test
+    void search_withShortQuery_shouldScanDocuments() {
+        assertEquals(List.of(1L, 3L), index.search("др"));
+    }
+
+    @Test
+    void index_shouldReplaceDocumentOnUpdate() {
+        index.index(1L, "Перфоратор", "Мощный", true);
+
+        assertEquals(List.of(3L), index.search("дрел"));
+        assertEquals(List.of(1L), index.search("перфоратор"));
+    }
+
+    @Test
+    void index_andRemove_shouldDropPostingsOfOldText() {
+        ItemSearchIndex fresh = new ItemSearchIndex();
+        fresh.index(1L, "abcd", "", true);
+        fresh.index(1L, "xyz", "", true);
+
+        ItemSearchIndex expected = new ItemSearchIndex();
+        expected.index(1L, "xyz", "", true);
+        assertEquals(expected.gramCount(), fresh.gramCount());
+        assertEquals(List.of(), fresh.search("abc"));
+
+        fresh.remove(1L);
+
+        assertEquals(0, fresh.gramCount());
+    }
+
+    @Test
+    void search_shouldMatchFullScanOnGeneratedCatalog() {
+        Random random = new Random(42);
+        String[] syllables = {"ка", "ро", "ми", "ту", "ле", "на", "по", "ши"};
+        ItemSearchIndex catalogIndex = new ItemSearchIndex();
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String text = word(random, syllables) + " " + word(random, syllables);
+            texts.add(text);
+            catalogIndex.index((long) i, text, "", true);
+        }
+
+        for (int query = 0; query < 20; query++) {
+            String text = word(random, syllables).substring(0, 2 + random.nextInt(4));
+            long scanned = texts.stream().filter(t -> t.contains(text)).count();
+            assertEquals(scanned, catalogIndex.search(text).size(), text);
+        }
+    }
+
+    @Test
+    void remove_shouldExcludeDocument() {
+        index.remove(2L);
+
+        assertEquals(List.of(3L), index.search("отвертк"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_withBlankText_shouldReturnEmptyList() {
+        assertTrue(index.search("   ").isEmpty());
+        assertTrue(index.search(null).isEmpty());
+    }
+
+    private static String word(Random random, String[] syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            word.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return word.toString();
+    }
+}
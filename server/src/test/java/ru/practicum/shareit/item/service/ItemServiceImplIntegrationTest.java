@@ -5,17 +5,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.booking.service.BookingRepository;
+import ru.practicum.shareit.bulk.BulkInsert;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
 import ru.practicum.shareit.comments.dto.CommentDto;
 import ru.practicum.shareit.comments.model.Comment;
 import ru.practicum.shareit.comments.service.CommentRepository;
+import ru.practicum.shareit.comments.service.LatestCommentRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -27,9 +40,12 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.practicum.shareit.booking.Booking.Status.APPROVED;
+import static ru.practicum.shareit.booking.Booking.Status.REJECTED;
+import static ru.practicum.shareit.booking.Booking.Status.WAITING;
 
 @DataJpaTest
-@Import({ItemServiceImpl.class, UserServiceImpl.class})
+@Import({ItemServiceImpl.class, UserServiceImpl.class, ItemSearchIndex.class, EntityCache.class, EntityLoader.class,
+        BulkInsert.class, AvailabilityCalendar.class, ItemGeoIndex.class})
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class ItemServiceImplIntegrationTest {
     @Autowired
@@ -50,6 +66,15 @@ class ItemServiceImplIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private LatestCommentRepository latestCommentRepository;
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @Autowired
+    private ItemGeoIndex geoIndex;
+
     @Test
     @Transactional
     void addItem_withRequest_shouldSaveRequestId() {
@@ -147,8 +172,7 @@ class ItemServiceImplIntegrationTest {
         );
         bookingRepository.save(futureBooking);
 
-        Comment comment = createComment("Great item!", item, booker);
-        commentRepository.save(comment);
+        saveComment(createComment("Great item!", item, booker));
 
         ItemWithBookingsDto result = itemService.getItemById(item.getId());
 
@@ -180,7 +204,7 @@ class ItemServiceImplIntegrationTest {
     void getAllItemsByOwner_whenNoItems_shouldReturnEmptyList() {
         User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
 
-        List<ItemDto> result = itemService.getAllItemsByOwner(owner.getId());
+        List<ItemWithBookingsDto> result = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 10)).getContent();
 
         assertTrue(result.isEmpty());
     }
@@ -192,7 +216,7 @@ class ItemServiceImplIntegrationTest {
         itemRepository.save(createItem("Item1", "Desc1", true, owner, null));
         itemRepository.save(createItem("Item2", "Desc2", true, owner, null));
 
-        List<ItemDto> result = itemService.getAllItemsByOwner(owner.getId());
+        List<ItemWithBookingsDto> result = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -200,7 +224,7 @@ class ItemServiceImplIntegrationTest {
     @Test
     @Transactional
     void searchItems_withEmptyText_shouldReturnEmptyList() {
-        List<ItemDto> result = itemService.searchItems("");
+        List<ItemDto> result = itemService.searchItems("", 0, 10);
 
         assertTrue(result.isEmpty());
     }
@@ -211,7 +235,7 @@ class ItemServiceImplIntegrationTest {
         User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
         itemRepository.save(createItem("Item1", "Desc1", true, owner, null));
 
-        List<ItemDto> result = itemService.searchItems("NonMatchingText");
+        List<ItemDto> result = itemService.searchItems("NonMatchingText", 0, 10);
 
         assertTrue(result.isEmpty());
     }
@@ -222,13 +246,186 @@ class ItemServiceImplIntegrationTest {
         User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
         itemRepository.save(createItem("Drill", "Powerful drill", true, owner, null));
         itemRepository.save(createItem("Hammer", "Heavy hammer", true, owner, null));
+        // С id из последовательности INSERT происходит при flush, индексация - после коммита
+        flushIndexes();
 
-        List<ItemDto> result = itemService.searchItems("drill");
+        List<ItemDto> result = itemService.searchItems("drill", 0, 10);
 
         assertEquals(1, result.size());
         assertEquals("Drill", result.get(0).getName());
     }
 
+    @Test
+    @Transactional
+    void searchItems_shouldRankNameMatchesFirstAndPaginate() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item inDescription = itemRepository.save(createItem("Case", "Case for a drill", true, owner, null));
+        Item inName = itemRepository.save(createItem("Cordless drill", "Battery powered", true, owner, null));
+        Item namePrefix = itemRepository.save(createItem("Drill", "Heavy duty", true, owner, null));
+        itemRepository.save(createItem("Drill press", "Broken", false, owner, null));
+        flushIndexes();
+
+        List<ItemDto> firstPage = itemService.searchItems("DRILL", 0, 2);
+        List<ItemDto> secondPage = itemService.searchItems("DRILL", 2, 2);
+
+        assertEquals(List.of(namePrefix.getId(), inName.getId()),
+                firstPage.stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(inDescription.getId()),
+                secondPage.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_withWindow_shouldExcludeItemsWithOverlappingApprovedBookings() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item busy = itemRepository.save(createItem("Ladder", "Busy", true, owner, null));
+        Item adjacent = itemRepository.save(createItem("Ladder 2", "Booked right before the window", true, owner, null));
+        Item waiting = itemRepository.save(createItem("Ladder 3", "Only waiting booking", true, owner, null));
+        Item free = itemRepository.save(createItem("Ladder 4", "No bookings", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withNano(0);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(createBooking(start.plusHours(1), start.plusHours(3), busy, booker, APPROVED));
+        // Полуоткрытые интервалы: бронь, закончившаяся ровно к началу периода, не мешает
+        bookingRepository.save(createBooking(start.minusDays(1), start, adjacent, booker, APPROVED));
+        bookingRepository.save(createBooking(start, end, waiting, booker, WAITING));
+        flushIndexes();
+
+        List<ItemDto> result = itemService.searchItems(null, "ladder", window(start, end), 0, 10);
+        List<ItemDto> secondPage = itemService.searchItems(null, "ladder", window(start, end), 2, 2);
+
+        assertEquals(List.of(adjacent.getId(), waiting.getId(), free.getId()),
+                result.stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(free.getId()), secondPage.stream().map(ItemDto::getId).toList());
+        assertEquals(4, itemService.searchItems("ladder", 0, 10).size());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_withRadius_shouldReturnTextMatchesInRadiusByDistance() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item far = itemRepository.save(createItemAt("Kayak far", owner, 55.9726, 37.4146));
+        Item close = itemRepository.save(createItemAt("Kayak close", owner, 55.7520, 37.6175));
+        itemRepository.save(createItemAt("Kayak in another city", owner, 59.9386, 30.3141));
+        itemRepository.save(createItem("Kayak nowhere", "No coordinates", true, owner, null));
+        itemRepository.save(createItemAt("Tent close", owner, 55.7521, 37.6176));
+        flushIndexes();
+
+        List<ItemDto> result = itemService.searchItems(null, "kayak", near(55.7539, 37.6208, 30.0, null), 0, 10);
+
+        assertEquals(List.of(close.getId(), far.getId()), result.stream().map(ItemDto::getId).toList());
+        assertEquals(55.7520, result.get(0).getLatitude());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_withNearestAndUserLocation_shouldReturnClosestItemsWithoutText() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User searcher = createUser("Searcher", "searcher@mail.com");
+        searcher.setLatitude(-33.8688);
+        searcher.setLongitude(151.2093);
+        userRepository.save(searcher);
+        Item first = itemRepository.save(createItemAt("Surfboard", owner, -33.8690, 151.2100));
+        Item second = itemRepository.save(createItemAt("Wetsuit", owner, -33.8900, 151.2700));
+        itemRepository.save(createItemAt("Snorkel", owner, -33.9500, 151.3000));
+        flushIndexes();
+
+        List<ItemDto> result = itemService.searchItems(searcher.getId(), "", near(null, null, null, 2), 0, 10);
+
+        assertEquals(List.of(first.getId(), second.getId()), result.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_nearbyWithoutCenter_shouldThrowValidationException() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems(owner.getId(), "kayak", near(null, null, 5.0, null), 0, 10));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems(null, "kayak", near(95.0, 0.0, 5.0, null), 0, 10));
+    }
+
+    @Test
+    @Transactional
+    void updateItem_withCoordinates_shouldMoveItemInGeoSearch() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item item = itemRepository.save(createItemAt("Canoe", owner, 59.9386, 30.3141));
+        itemRepository.flush();
+        ItemDto update = new ItemDto();
+        update.setLatitude(55.7520);
+        update.setLongitude(37.6175);
+
+        itemService.updateItem(owner.getId(), item.getId(), update);
+        flushIndexes();
+
+        assertEquals(List.of(item.getId()), itemService.searchItems(null, "canoe",
+                near(55.7539, 37.6208, 5.0, null), 0, 10).stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_withHalfOpenWindow_shouldThrowValidationException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        assertThrows(ValidationException.class, () -> itemService.searchItems(null, "drill", window(start, null), 0, 10));
+        assertThrows(ValidationException.class, () -> itemService.searchItems(null, "drill", window(start, start), 0, 10));
+    }
+
+    @Test
+    @Transactional
+    void updateItem_rolledBack_shouldKeepSearchIndex() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item item = itemRepository.save(createItem("Trowel", "Garden trowel", true, owner, null));
+        flushIndexes();
+        ItemDto update = new ItemDto();
+        update.setAvailable(false);
+
+        itemService.updateItem(owner.getId(), item.getId(), update);
+        itemRepository.flush();
+        TestTransaction.end();
+
+        assertEquals(List.of(item.getId()), searchIndex.search("trowel"));
+    }
+
+    @Test
+    @Transactional
+    void updateItem_withCoordinatesRolledBack_shouldKeepGeoIndex() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item item = itemRepository.save(createItemAt("Paddle", owner, 59.9386, 30.3141));
+        flushIndexes();
+        ItemDto update = new ItemDto();
+        update.setLatitude(55.7520);
+        update.setLongitude(37.6175);
+
+        itemService.updateItem(owner.getId(), item.getId(), update);
+        itemRepository.flush();
+        TestTransaction.end();
+
+        assertEquals(0.0, geoIndex.distanceKm(item.getId(), 59.9386, 30.3141), 1e-9);
+    }
+
+    @Test
+    @Transactional
+    void searchItems_afterUpdate_shouldUseNewText() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item item = itemRepository.save(createItem("Hammer", "Heavy hammer", true, owner, null));
+
+        ItemDto updateDto = new ItemDto();
+        updateDto.setName("Sledgehammer");
+        updateDto.setDescription("Very heavy");
+        itemService.updateItem(owner.getId(), item.getId(), updateDto);
+        flushIndexes();
+
+        assertEquals(1, itemService.searchItems("sledge", 0, 10).size());
+        assertTrue(itemService.searchItems("heavy hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void searchItems_withNegativeFrom_shouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", -1, 10));
+    }
+
     @Test
     @Transactional
     void addComment_whenNoPastBookings_shouldThrow() {
@@ -268,18 +465,77 @@ class ItemServiceImplIntegrationTest {
 
     @Test
     @Transactional
-    void getCommentsByItemId_whenNoComments_shouldReturnEmptyList() {
+    void addComment_shouldCountWithoutChangingItemVersion() {
         User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
         Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+        bookingRepository.save(createBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item, booker, APPROVED));
+        itemRepository.flush();
+        Long version = item.getVersion();
 
-        List<CommentDto> result = itemService.getCommentsByItemId(item.getId());
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("Great item!");
+        itemService.addComment(booker.getId(), item.getId(), commentDto);
+        itemRepository.flush();
+
+        // Правка владельца, загрузившего вещь до комментария, не получит конфликт версий
+        Item reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(1L, reloaded.getCommentCount());
+        assertEquals(version, reloaded.getVersion());
+    }
+
+    @Test
+    @Transactional
+    void getItemCard_etagShouldChangeOnlyWhenCardChanges() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+        bookingRepository.save(createBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item, booker, APPROVED));
+        String initial = itemService.getItemCard(item.getId(), etag -> false).etag();
+
+        assertEquals(initial, itemService.getItemCard(item.getId(), etag -> false).etag());
+
+        ItemDto update = new ItemDto();
+        update.setName("Renamed");
+        itemService.updateItem(owner.getId(), item.getId(), update);
+        // Версия увеличивается при flush, в рабочем запросе он происходит при коммите
+        itemRepository.flush();
+        String afterUpdate = itemService.getItemCard(item.getId(), etag -> false).etag();
+        assertNotEquals(initial, afterUpdate);
+
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("Great item!");
+        itemService.addComment(booker.getId(), item.getId(), commentDto);
+        String afterComment = itemService.getItemCard(item.getId(), etag -> false).etag();
+        assertNotEquals(afterUpdate, afterComment);
+
+        bookingRepository.save(createBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, booker, WAITING));
+        String afterBooking = itemService.getItemCard(item.getId(), etag -> false).etag();
+        assertNotEquals(afterComment, afterBooking);
+
+        // Имя арендатора показано в последнем и следующем бронировании карточки
+        booker.setName("Renamed booker");
+        userRepository.flush();
+        assertNotEquals(afterBooking, itemService.getItemCard(item.getId(), etag -> false).etag());
+    }
+
+    @Test
+    @Transactional
+    void getComments_whenNoComments_shouldReturnEmptyList() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+
+        List<CommentDto> result = itemService.getComments(item.getId(), PageParams.of(0, 10)).getContent();
 
         assertTrue(result.isEmpty());
     }
 
     @Test
     @Transactional
-    void getCommentsByItemId_whenCommentsExist_shouldReturnComments() {
+    void getComments_whenCommentsExist_shouldReturnComments() {
         User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
         User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
         Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
@@ -287,12 +543,141 @@ class ItemServiceImplIntegrationTest {
         Comment comment = createComment("Great item!", item, booker);
         commentRepository.save(comment);
 
-        List<CommentDto> result = itemService.getCommentsByItemId(item.getId());
+        List<CommentDto> result = itemService.getComments(item.getId(), PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals("Great item!", result.get(0).getText());
     }
 
+    @Test
+    @Transactional
+    void getComments_withCursor_shouldPageFromNewest() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+        // Без долей секунды: курсор строится из dto, а в базе время хранится с меньшей точностью
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Comment comment = createComment("Comment " + i, item, booker);
+            comment.setCreated(now.minusMinutes(5 - i));
+            commentRepository.save(comment);
+        }
+
+        Slice<CommentDto> first = itemService.getComments(item.getId(), PageParams.of(0, 2));
+        CommentDto last = first.getContent().get(1);
+        Slice<CommentDto> second = itemService.getComments(item.getId(),
+                PageParams.of(0, 2, KeysetCursor.encode(last.getCreated(), last.getId())));
+
+        assertEquals(List.of("Comment 4", "Comment 3"), first.getContent().stream().map(CommentDto::getText).toList());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("Comment 2", "Comment 1"),
+                second.getContent().stream().map(CommentDto::getText).toList());
+    }
+
+    @Test
+    @Transactional
+    void getComments_whenItemNotFound_shouldThrowNotFoundException() {
+        assertThrows(NotFoundException.class, () -> itemService.getComments(999L, PageParams.of(0, 10)));
+    }
+
+    @Test
+    @Transactional
+    void getAvailability_shouldMarkApprovedAsBusyAndWaitingAsPending() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+        LocalDateTime day = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        bookingRepository.save(createBooking(day.plusHours(2), day.plusHours(4), item, booker, APPROVED));
+        // Неполный час тоже занят
+        bookingRepository.save(createBooking(day.plusHours(5).plusMinutes(30), day.plusHours(6), item, booker,
+                WAITING));
+        bookingRepository.save(createBooking(day.plusHours(7), day.plusHours(8), item, booker, REJECTED));
+
+        List<AvailabilitySlotDto> result = itemService.getAvailability(item.getId(), day, day.plusHours(10));
+
+        assertEquals(List.of(
+                new AvailabilitySlotDto(day, day.plusHours(2), "FREE"),
+                new AvailabilitySlotDto(day.plusHours(2), day.plusHours(4), "BUSY"),
+                new AvailabilitySlotDto(day.plusHours(4), day.plusHours(5), "FREE"),
+                new AvailabilitySlotDto(day.plusHours(5), day.plusHours(6), "PENDING"),
+                new AvailabilitySlotDto(day.plusHours(6), day.plusHours(10), "FREE")), result);
+    }
+
+    @Test
+    @Transactional
+    void getAvailability_whenItemNotFound_shouldThrowNotFoundException() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(999L, from, from.plusHours(1)));
+    }
+
+    @Test
+    @Transactional
+    void getItemById_withManyComments_shouldReturnCountAndNewestWindow() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item item = itemRepository.save(createItem("Item", "Desc", true, owner, null));
+        bookingRepository.save(createBooking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item, booker, APPROVED));
+        for (int i = 0; i < 12; i++) {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setText("Comment " + i);
+            itemService.addComment(booker.getId(), item.getId(), commentDto);
+        }
+
+        ItemWithBookingsDto result = itemService.getItemById(item.getId());
+
+        assertEquals(12L, result.getCommentCount());
+        assertEquals(10, result.getComments().size());
+        assertEquals("Comment 11", result.getComments().get(0).getText());
+        // Окно обрезается при записи: в нем не больше COMMENT_WINDOW строк
+        assertEquals(10, latestCommentRepository.count());
+    }
+
+    @Test
+    @Transactional
+    void getAllItemsByOwner_shouldReturnLastAndNextBookingsAndCommentsPerItem() {
+        User owner = userRepository.save(createUser("Owner", "owner@mail.com"));
+        User booker = userRepository.save(createUser("Booker", "booker@mail.com"));
+        Item drill = itemRepository.save(createItem("Drill", "Desc", true, owner, null));
+        Item saw = itemRepository.save(createItem("Saw", "Desc", true, owner, null));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(createBooking(now.minusDays(5), now.minusDays(4), drill, booker, APPROVED));
+        Booking drillLast = bookingRepository.save(
+                createBooking(now.minusDays(3), now.minusDays(2), drill, booker, APPROVED));
+        // Отклоненное прошлое бронирование не может быть последним
+        bookingRepository.save(createBooking(now.minusDays(2), now.minusDays(1), drill, booker, REJECTED));
+        Booking drillNext = bookingRepository.save(
+                createBooking(now.plusDays(1), now.plusDays(2), drill, booker, WAITING));
+        bookingRepository.save(createBooking(now.plusDays(3), now.plusDays(4), drill, booker, APPROVED));
+        Booking sawNext = bookingRepository.save(
+                createBooking(now.plusHours(1), now.plusHours(2), saw, booker, APPROVED));
+        saveComment(createComment("Great drill!", drill, booker));
+
+        List<ItemWithBookingsDto> result = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 10))
+                .getContent();
+
+        assertEquals(2, result.size());
+        ItemWithBookingsDto drillDto = result.get(0);
+        ItemWithBookingsDto sawDto = result.get(1);
+        assertAll(
+                () -> assertEquals(drill.getId(), drillDto.getId()),
+                () -> assertEquals(drillLast.getId(), drillDto.getLastBooking().getId()),
+                () -> assertEquals(drillNext.getId(), drillDto.getNextBooking().getId()),
+                () -> assertEquals(List.of("Great drill!"),
+                        drillDto.getComments().stream().map(CommentDto::getText).toList()),
+                () -> assertNull(sawDto.getLastBooking()),
+                () -> assertEquals(sawNext.getId(), sawDto.getNextBooking().getId()),
+                () -> assertTrue(sawDto.getComments().isEmpty())
+        );
+    }
+
+    // Индексы правятся после коммита, а тестовая транзакция откатывается: выполняем их часть коммита вручную
+    private void flushIndexes() {
+        itemRepository.flush();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
     private User createUser(String name, String email) {
         User user = new User();
         user.setName(name);
@@ -310,6 +695,29 @@ class ItemServiceImplIntegrationTest {
         return item;
     }
 
+    private Item createItemAt(String name, User owner, double latitude, double longitude) {
+        Item item = createItem(name, name, true, owner, null);
+        item.setLatitude(latitude);
+        item.setLongitude(longitude);
+        return item;
+    }
+
+    private ItemSearchFilter window(LocalDateTime start, LocalDateTime end) {
+        ItemSearchFilter filter = new ItemSearchFilter();
+        filter.setStart(start);
+        filter.setEnd(end);
+        return filter;
+    }
+
+    private ItemSearchFilter near(Double lat, Double lon, Double radius, Integer nearest) {
+        ItemSearchFilter filter = new ItemSearchFilter();
+        filter.setLat(lat);
+        filter.setLon(lon);
+        filter.setRadius(radius);
+        filter.setNearest(nearest);
+        return filter;
+    }
+
     private Booking createBooking(LocalDateTime start, LocalDateTime end,
                                   Item item, User booker, Booking.Status status) {
         Booking booking = new Booking();
@@ -321,6 +729,12 @@ class ItemServiceImplIntegrationTest {
         return booking;
     }
 
+    // Как addComment: комментарий вместе со строкой окна, которое читает карточка
+    private void saveComment(Comment comment) {
+        commentRepository.save(comment);
+        latestCommentRepository.add(comment.getId(), comment.getItem().getId(), comment.getCreated());
+    }
+
     private Comment createComment(String text, Item item, User author) {
         Comment comment = new Comment();
         comment.setText(text);
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.comments.model.LatestComment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ItemServiceQueryCountTest {
+    private static final int ITEMS = 40;
+    private static final int BOOKINGS_PER_ITEM = 20;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser("owner");
+        User booker = persistUser("booker");
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Item " + i);
+            item.setDescription("Description " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            entityManager.persist(item);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                Booking booking = new Booking();
+                // Половина истории в прошлом, половина впереди
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2);
+                booking.setStart(start);
+                booking.setEnd(start.plusHours(1));
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStatus(Booking.Status.APPROVED);
+                entityManager.persist(booking);
+            }
+            Comment comment = new Comment();
+            comment.setText("Comment " + i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now);
+            entityManager.persist(comment);
+            LatestComment latest = new LatestComment();
+            latest.setCommentId(comment.getId());
+            latest.setItemId(item.getId());
+            latest.setCreated(now);
+            entityManager.persist(latest);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllItemsByOwner_shouldUseConstantNumberOfStatements() {
+        List<ItemWithBookingsDto> result = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, ITEMS))
+                .getContent();
+
+        assertEquals(ITEMS, result.size());
+        result.forEach(item -> {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(1, item.getComments().size());
+        });
+        // Страница вещей, последние бронирования, следующие бронирования, комментарии
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getItemById_shouldNotLoadWholeBookingHistory() {
+        Long itemId = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemWithBookingsDto result = itemService.getItemById(itemId);
+
+        assertNotNull(result.getLastBooking());
+        assertNotNull(result.getNextBooking());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        // Из истории в 20 бронирований загружаются только последнее и следующее
+        assertEquals(2, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void getItemCard_shouldBuildCardAndEtagWithSameStatements() {
+        Long itemId = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemService.ItemCard card = itemService.getItemCard(itemId, etag -> false);
+
+        assertNotNull(card.etag());
+        assertEquals(1, card.item().getComments().size());
+        // Вещь, последнее и следующее бронирование, комментарии - тег не добавляет запросов
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getItemCard_whenNotModified_shouldSkipCommentsAndMapping() {
+        Long itemId = itemService.getAllItemsByOwner(owner.getId(), PageParams.of(0, 1)).getContent().get(0).getId();
+        String etag = itemService.getItemCard(itemId, tag -> false).etag();
+        entityManager.clear();
+        statistics.clear();
+
+        ItemService.ItemCard card = itemService.getItemCard(itemId, etag::equals);
+
+        assertNull(card.item());
+        assertEquals(etag, card.etag());
+        // Вещь, последнее и следующее бронирование; окно комментариев не читается
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Comment.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void addItems_shouldInsertInJdbcBatches() {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("Bulk " + i);
+            itemDto.setDescription("Bulk description " + i);
+            itemDto.setAvailable(true);
+            itemDtos.add(itemDto);
+        }
+
+        List<ItemDto> result = itemService.addItems(owner.getId(), itemDtos);
+
+        assertEquals(200, result.size());
+        assertEquals(200, statistics.getEntityInsertCount());
+        // Владелец, 4 блока id из последовательности и 4 пачки INSERT по 50 строк
+        assertEquals(9, statistics.getPrepareStatementCount());
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.com");
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        UserDto userDto = new UserDto();
+        userDto.setName("Metrics");
+        userDto.setEmail("metrics@mail.com");
+        user = userService.createUser(userDto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(user.getId());
+    }
+
+    @Test
+    void request_shouldRecordStatementsPerEndpoint() throws Exception {
+        double selectsBefore = selects();
+
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("jdbc.request.statements")
+                .tag("method", "GET")
+                .tag("uri", "/bookings")
+                .summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertEquals(1, meterRegistry.get("jdbc.request.time").tag("uri", "/bookings").timer().count());
+        assertTrue(selects() - selectsBefore >= statements.totalAmount());
+    }
+
+    @Test
+    void getUser_shouldReuseUserLoadedForEtag() throws Exception {
+        mockMvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary avoided = meterRegistry.get("entity.loader.avoided")
+                .tag("method", "GET")
+                .tag("uri", "/users/{userId}")
+                .summary();
+        assertEquals(1, avoided.count());
+        assertEquals(1, avoided.totalAmount());
+    }
+
+    @Test
+    void proxiedDataSource_shouldKeepHikariPoolMetrics() {
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.acquire").timer());
+    }
+
+    private double selects() {
+        return meterRegistry.get("jdbc.statements").tag("type", "select").timer().count();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Схема накатывается теми же миграциями Flyway, что и в продакшене; план запроса берем через EXPLAIN.
+// H2 сам индексирует внешние ключи и может выбрать такой индекс, поэтому для выборок проверяем доступ
+// по индексу на нужной колонке, а состав составных индексов - по каталогу
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AccessPathIndexTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldCreateCompositeIndexesForRepositoryQueries() {
+        assertIndexColumns("bookings_booker_id_start_date_idx", "booker_id", "start_date", "id");
+        assertIndexColumns("bookings_item_id_start_date_idx", "item_id", "start_date");
+        assertIndexColumns("bookings_item_id_status_end_start_idx", "item_id", "status", "end_date", "start_date");
+        assertIndexColumns("bookings_status_end_date_idx", "status", "end_date");
+        assertIndexColumns("items_owner_id_id_idx", "owner_id", "id");
+        assertIndexColumns("items_request_id_idx", "request_id");
+        assertIndexColumns("comments_item_id_created_id_idx", "item_id", "created", "id");
+        assertIndexColumns("requests_requestor_id_created_idx", "requestor_id", "created", "id");
+        assertIndexColumns("requests_created_idx", "created", "id");
+    }
+
+    @Test
+    void bookerBookings_shouldSeekByBooker() {
+        assertIndexedAccess("booker_id",
+                "SELECT * FROM bookings b WHERE b.booker_id = 1 " +
+                        "AND (b.start_date < CURRENT_TIMESTAMP OR (b.start_date = CURRENT_TIMESTAMP AND b.id < 10)) " +
+                        "ORDER BY b.start_date DESC, b.id DESC LIMIT 10");
+    }
+
+    @Test
+    void ownerBookings_shouldJoinThroughOwnerAndItemIndexes() {
+        String sql = "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id " +
+                "WHERE i.owner_id = 1 ORDER BY b.start_date DESC, b.id DESC LIMIT 10";
+
+        assertIndexedAccess("owner_id", sql);
+        assertIndexedAccess("item_id", sql);
+    }
+
+    @Test
+    void nextBookings_shouldUseItemStartIndex() {
+        String plan = explain("SELECT * FROM bookings b WHERE b.item_id IN (1, 2, 3) " +
+                "AND b.start_date > CURRENT_TIMESTAMP " +
+                "AND b.start_date = (SELECT MIN(n.start_date) FROM bookings n " +
+                "WHERE n.item_id = b.item_id AND n.start_date > CURRENT_TIMESTAMP)");
+
+        assertTrue(plan.contains("bookings_item_id_start_date_idx"), plan);
+    }
+
+    @Test
+    void ownerItems_shouldSeekByOwner() {
+        assertIndexedAccess("owner_id", "SELECT * FROM items WHERE owner_id = 1 AND id > 0 ORDER BY id LIMIT 10");
+    }
+
+    @Test
+    void requestItems_shouldSeekByRequest() {
+        assertIndexedAccess("request_id", "SELECT * FROM items WHERE request_id IN (1, 2)");
+    }
+
+    @Test
+    void itemComments_shouldSeekByItem() {
+        assertIndexedAccess("item_id", "SELECT * FROM comments WHERE item_id IN (1, 2) ORDER BY created");
+    }
+
+    @Test
+    void requestorRequests_shouldSeekByRequestor() {
+        assertIndexedAccess("requestor_id",
+                "SELECT * FROM requests r WHERE r.requestor_id = 1 ORDER BY r.created DESC, r.id DESC LIMIT 10");
+    }
+
+    private void assertIndexColumns(String index, String... columns) {
+        List<String> actual = jdbcTemplate.queryForList(
+                "SELECT LOWER(column_name) FROM information_schema.index_columns " +
+                        "WHERE LOWER(index_name) = ? ORDER BY ordinal_position", String.class, index);
+        assertEquals(List.of(columns), actual, "Колонки индекса " + index);
+    }
+
+    // В плане H2 доступ по индексу выглядит как /* public.имя_индекса: колонка = ... */
+    private void assertIndexedAccess(String column, String sql) {
+        String plan = explain(sql);
+        Pattern indexAccess = Pattern.compile("/\\* public\\.\\w+: " + column + " ");
+        assertTrue(indexAccess.matcher(plan).find(), "Ожидался доступ по индексу на " + column + " в плане:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_thenDecode_shouldReturnSameKey() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+
+        KeysetCursor.TimestampKey key = KeysetCursor.decodeTimestampKey(KeysetCursor.encode(start, 42L));
+
+        assertEquals(start, key.timestamp());
+        assertEquals(42L, key.id());
+        assertEquals(7L, KeysetCursor.decodeId(KeysetCursor.encode(7L)));
+    }
+
+    @Test
+    void decode_withoutCursor_shouldStartFromBeginning() {
+        KeysetCursor.TimestampKey key = KeysetCursor.decodeTimestampKey(null);
+
+        assertEquals(KeysetCursor.MAX_TIMESTAMP, key.timestamp());
+        assertEquals(KeysetCursor.MAX_ID, key.id());
+        assertEquals(0L, KeysetCursor.decodeId(null));
+    }
+
+    @Test
+    void decode_withGarbage_shouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decodeTimestampKey("не курсор"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decodeId(KeysetCursor.encode(1L) + "!!"));
+    }
+
+    @Test
+    void pageParams_withInvalidValues_shouldThrowValidationException() {
+        assertThrows(ValidationException.class, () -> PageParams.of(-1, 10));
+        assertThrows(ValidationException.class, () -> PageParams.of(0, 0));
+    }
+}
@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -84,8 +86,8 @@ class ItemRequestControllerTest {
 
         List<ItemRequestDto> requests = Collections.singletonList(requestDto);
 
-        when(itemRequestService.getAllRequestsByUser(anyLong()))
-                .thenReturn(requests);
+        when(itemRequestService.getAllRequestsByUser(anyLong(), any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(requests));
 
         mockMvc.perform(get("/requests")
                         .header(USER_ID_HEADER, 1L))
@@ -93,7 +95,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].description").value("Нужна дрель"));
 
-        verify(itemRequestService, times(1)).getAllRequestsByUser(eq(1L));
+        verify(itemRequestService, times(1)).getAllRequestsByUser(eq(1L), any(PageParams.class));
     }
 
     @Test
@@ -105,8 +107,8 @@ class ItemRequestControllerTest {
 
         List<ItemRequestDto> requests = Collections.singletonList(requestDto);
 
-        when(itemRequestService.getAllRequests(anyLong()))
-                .thenReturn(requests);
+        when(itemRequestService.getAllRequests(anyLong(), any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(requests));
 
         mockMvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, 1L))
@@ -114,6 +116,6 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].description").value("Нужна дрель"));
 
-        verify(itemRequestService, times(1)).getAllRequests(eq(1L));
+        verify(itemRequestService, times(1)).getAllRequests(eq(1L), any(PageParams.class));
     }
 }
\ No newline at end of file
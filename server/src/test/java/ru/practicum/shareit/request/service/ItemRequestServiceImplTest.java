@@ -6,7 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -18,7 +22,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import(ItemRequestServiceImpl.class)
+@Import({ItemRequestServiceImpl.class, EntityCache.class, EntityLoader.class})
 class ItemRequestServiceImplTest {
 
     @Autowired
@@ -80,7 +84,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequestsByUser_ValidUser_ReturnsList() {
-        List<ItemRequestDto> result = itemRequestService.getAllRequestsByUser(user.getId());
+        List<ItemRequestDto> result = itemRequestService.getAllRequestsByUser(user.getId(), PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals("Нужна дрель", result.get(0).getDescription());
@@ -88,7 +92,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequestsByUser_UserNotFound_ThrowsException() {
-        assertThrows(NotFoundException.class, () -> itemRequestService.getAllRequestsByUser(999L));
+        assertThrows(NotFoundException.class, () -> itemRequestService.getAllRequestsByUser(999L, PageParams.of(0, 10)));
     }
 
     @Test
@@ -99,12 +103,34 @@ class ItemRequestServiceImplTest {
         ItemRequest anotherRequest = new ItemRequest(null, "Нужен стул", anotherUser, LocalDateTime.now());
         em.persist(anotherRequest);
 
-        List<ItemRequestDto> result = itemRequestService.getAllRequests(user.getId());
+        List<ItemRequestDto> result = itemRequestService.getAllRequests(user.getId(), PageParams.of(0, 10)).getContent();
 
         assertEquals(1, result.size());
         assertEquals("Нужен стул", result.get(0).getDescription());
     }
 
+    @Test
+    void getRequestEtag_shouldChangeWhenItemIsAddedForRequest() {
+        String initial = itemRequestService.getRequestEtag(user.getId(), request.getId());
+        assertEquals(initial, itemRequestService.getRequestEtag(user.getId(), request.getId()));
+
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(user);
+        item.setRequest(request);
+        em.persist(item);
+
+        assertNotEquals(initial, itemRequestService.getRequestEtag(user.getId(), request.getId()));
+    }
+
+    @Test
+    void getRequestEtag_UserNotFound_ThrowsException() {
+        assertThrows(NotFoundException.class, () -> itemRequestService.getRequestEtag(999L, request.getId()));
+        assertThrows(NotFoundException.class, () -> itemRequestService.getRequestById(999L, request.getId()));
+    }
+
     @Test
     void getAllRequests_NoRequests_ReturnsEmptyList() {
         itemRequestRepository.deleteAll();
@@ -112,7 +138,7 @@ class ItemRequestServiceImplTest {
         User newUser = new User(null, "New User", "new@mail.com");
         em.persist(newUser);
 
-        List<ItemRequestDto> result = itemRequestService.getAllRequests(newUser.getId());
+        List<ItemRequestDto> result = itemRequestService.getAllRequests(newUser.getId(), PageParams.of(0, 10)).getContent();
 
         assertTrue(result.isEmpty());
     }
@@ -5,8 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.Pages;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -15,9 +21,11 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,6 +60,43 @@ class UserControllerTest {
         verify(userService, times(1)).createUser(any(UserDto.class));
     }
 
+    @Test
+    void createUsers() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+        UserDto saved = new UserDto();
+        saved.setId(1L);
+        saved.setName("John Doe");
+        saved.setEmail("john@example.com");
+        when(userService.createUsers(anyList()))
+                .thenReturn(List.of(saved));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].email").value("john@example.com"));
+    }
+
+    @Test
+    void getUserById_withStaleIfNoneMatch_returnsBodyWithNewEtag() throws Exception {
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setName("John Doe");
+        when(userService.getUserEtag(anyLong()))
+                .thenReturn("W/\"v2\"");
+        when(userService.getUserById(anyLong()))
+                .thenReturn(userDto);
+
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v2\""))
+                .andExpect(jsonPath("$.name").value("John Doe"));
+    }
+
     @Test
     void getUserById() throws Exception {
         UserDto userDto = new UserDto();
@@ -80,16 +125,17 @@ class UserControllerTest {
 
         List<UserDto> users = Collections.singletonList(userDto);
 
-        when(userService.getAllUsers())
-                .thenReturn(users);
+        when(userService.getAllUsers(any(PageParams.class)))
+                .thenReturn(new SliceImpl<>(users, PageRequest.of(0, 1), true));
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("John Doe"))
-                .andExpect(jsonPath("$[0].email").value("john@example.com"));
+                .andExpect(jsonPath("$[0].email").value("john@example.com"))
+                .andExpect(header().string(Pages.NEXT_CURSOR_HEADER, KeysetCursor.encode(1L)));
 
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getAllUsers(any(PageParams.class));
     }
 
     @Test
@@ -5,16 +5,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
+import ru.practicum.shareit.bulk.BulkInsert;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.EntityLoader;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemGeoIndex;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import(UserServiceImpl.class)
+@Import({UserServiceImpl.class, EntityCache.class, EntityLoader.class, BulkInsert.class, ItemSearchIndex.class,
+        ItemGeoIndex.class, AvailabilityCalendar.class})
 class UserServiceImplIntegrationTest {
 
     @Autowired
@@ -26,6 +43,70 @@ class UserServiceImplIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @Autowired
+    private ItemGeoIndex geoIndex;
+
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Test
+    void createUsers_shouldInsertAllUsersInBatches() {
+        List<UserDto> userDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            UserDto userDto = new UserDto();
+            userDto.setName("Bulk " + i);
+            userDto.setEmail("bulk" + i + "@example.com");
+            userDtos.add(userDto);
+        }
+
+        List<UserDto> result = userService.createUsers(userDtos);
+
+        assertEquals(120, result.size());
+        assertEquals(120, result.stream().map(UserDto::getId).distinct().count());
+        assertEquals("bulk119@example.com", userRepository.findById(result.get(119).getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void createUsers_whenEmailRegistered_shouldSaveNone() {
+        User user = new User();
+        user.setName("John");
+        user.setEmail("taken@example.com");
+        em.persistAndFlush(user);
+        UserDto fresh = new UserDto();
+        fresh.setName("Fresh");
+        fresh.setEmail("fresh@example.com");
+        UserDto taken = new UserDto();
+        taken.setName("Taken");
+        taken.setEmail("taken@example.com");
+
+        assertThrows(ConflictException.class, () -> userService.createUsers(List.of(fresh, taken)));
+        assertTrue(userRepository.findByEmail("fresh@example.com").isEmpty());
+    }
+
+    @Test
+    void updateUser_withCoordinates_shouldSaveThemAndRejectHalfPair() {
+        User user = new User();
+        user.setName("John");
+        user.setEmail("john@example.com");
+        User savedUser = em.persistAndFlush(user);
+        UserDto location = new UserDto();
+        location.setEmail("john@example.com");
+        location.setLatitude(55.75);
+        location.setLongitude(37.62);
+        UserDto latitudeOnly = new UserDto();
+        latitudeOnly.setEmail("john@example.com");
+        latitudeOnly.setLatitude(10.0);
+
+        UserDto result = userService.updateUser(savedUser.getId(), location);
+
+        assertEquals(55.75, result.getLatitude());
+        assertEquals(37.62, result.getLongitude());
+        assertThrows(ValidationException.class, () -> userService.updateUser(savedUser.getId(), latitudeOnly));
+    }
+
     @Test
     void getUserById_whenUserExists_thenReturnUser() {
         User user = new User();
@@ -77,10 +158,24 @@ class UserServiceImplIntegrationTest {
 
     @Test
     void getAllUsers_whenNoUsers_returnsEmptyList() {
-        List<UserDto> result = userService.getAllUsers();
+        List<UserDto> result = userService.getAllUsers(PageParams.of(0, 10)).getContent();
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getAllUsers_whenFromNotMultipleOfSize_shouldSkipExactlyFromRows() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(em.persistAndFlush(new User(null, "Page " + i, "page" + i + "@mail.com")).getId());
+        }
+
+        List<UserDto> middle = userService.getAllUsers(PageParams.of(5, 10)).getContent();
+        List<UserDto> tail = userService.getAllUsers(PageParams.of(15, 10)).getContent();
+
+        assertEquals(ids.subList(5, 15), middle.stream().map(UserDto::getId).toList());
+        assertEquals(ids.subList(15, 25), tail.stream().map(UserDto::getId).toList());
+    }
+
     @Test
     void deleteUser_whenUserExists_shouldRemoveFromDb() {
         User user = em.persistAndFlush(new User(null, "DelUser", "del@mail.com"));
@@ -90,6 +185,58 @@ class UserServiceImplIntegrationTest {
         assertFalse(userRepository.findById(user.getId()).isPresent());
     }
 
+    @Test
+    void deleteUser_shouldDropCascadedItemsFromIndexes() {
+        User owner = em.persistAndFlush(new User(null, "Owner", "owner@mail.com"));
+        Item item = new Item();
+        item.setName("Whetstone");
+        item.setDescription("Sharpening stone");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setLatitude(48.8566);
+        item.setLongitude(2.3522);
+        em.persistAndFlush(item);
+
+        userService.deleteUser(owner.getId());
+        // Тестовая транзакция откатывается: выполняем часть коммита, которая правит индекс
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(searchIndex.search("whetstone").isEmpty());
+        assertNull(geoIndex.distanceKm(item.getId(), 48.8566, 2.3522));
+    }
+
+    @Test
+    void deleteUser_shouldEvictCalendarsOfBookedItems() {
+        User owner = em.persistAndFlush(new User(null, "Owner", "owner@mail.com"));
+        User booker = em.persistAndFlush(new User(null, "Booker", "booker@mail.com"));
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        em.persistAndFlush(item);
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        Booking booking = new Booking();
+        booking.setStart(day.plusHours(10));
+        booking.setEnd(day.plusHours(12));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Booking.Status.WAITING);
+        em.persistAndFlush(booking);
+        assertTrue(availabilityCalendar.getSlots(item.getId(), day, day.plusDays(1)).stream()
+                .anyMatch(slot -> "PENDING".equals(slot.getStatus())));
+
+        userService.deleteUser(booker.getId());
+        // Коммит сначала сбрасывает удаление в базу, потом вызывает afterCommit
+        em.flush();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        em.clear();
+
+        // Бронь ушла каскадом вместе с пользователем, и календарь вещи это видит
+        assertTrue(availabilityCalendar.getSlots(item.getId(), day, day.plusDays(1)).stream()
+                .allMatch(slot -> "FREE".equals(slot.getStatus())));
+    }
+
     @Test
     void updateUser_whenOnlyNameChanged_shouldUpdateName() {
         User existing = em.persistAndFlush(new User(null, "OldName", "name@mail.com"));